@@ -1,16 +1,129 @@
 import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
 
 // Main Class
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager();
+
+        // Headless mode: java Main --server [port]
+        if (args.length > 0 && "--server".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            QuizApiServer server = new QuizApiServer(databaseManager, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    databaseManager.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }));
+            server.start();
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
-            LoginGUI loginGUI = new LoginGUI();
+            LoginGUI loginGUI = new LoginGUI(databaseManager);
             loginGUI.setVisible(true);
         });
     }
@@ -76,7 +189,23 @@ abstract class Question {
         return correctAnswer;
     }
 
+    // 1.0 for a correct answer, else 0.0; a missing (null) answer scores 0
     public abstract double gradeAnswer(String studentAnswer);
+
+    // Build the subclass for a stored question type; null for an unknown type
+    public static Question create(int questionId, int quizId, String questionType, String questionText,
+            List<String> options, String correctAnswer) {
+        switch (questionType) {
+            case "Short Answer":
+                return new ShortAnswerQuestion(questionId, quizId, questionText, correctAnswer);
+            case "True/False":
+                return new TrueFalseQuestion(questionId, quizId, questionText, correctAnswer);
+            case "Multiple Choice":
+                return new MultipleChoiceQuestion(questionId, quizId, questionText, options, correctAnswer);
+            default:
+                return null;
+        }
+    }
 }
 
 // ShortAnswerQuestion Class
@@ -87,7 +216,7 @@ class ShortAnswerQuestion extends Question {
 
     @Override
     public double gradeAnswer(String studentAnswer) {
-        if (correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
+        if (studentAnswer != null && correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
             return 1.0;
         } else {
             return 0.0;
@@ -103,7 +232,7 @@ class TrueFalseQuestion extends Question {
 
     @Override
     public double gradeAnswer(String studentAnswer) {
-        if (correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
+        if (studentAnswer != null && correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
             return 1.0;
         } else {
             return 0.0;
@@ -127,7 +256,7 @@ class MultipleChoiceQuestion extends Question {
 
     @Override
     public double gradeAnswer(String studentAnswer) {
-        if (correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
+        if (studentAnswer != null && correctAnswer.equalsIgnoreCase(studentAnswer.trim())) {
             return 1.0;
         } else {
             return 0.0;
@@ -135,6 +264,197 @@ class MultipleChoiceQuestion extends Question {
     }
 }
 
+// AnswerKey Class (a quiz's correct answers compiled once for allocation-free grading)
+class AnswerKey {
+    private static final byte TEXT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte CHOICE = 2;
+
+    private final int quizId;
+    private final int[] questionIds;
+    private final byte[] kinds;
+    private final String[] expected;
+    private final boolean[] expectedBoolean;
+    private final String[][] options;
+    private final int[] expectedIndex;
+
+    public AnswerKey(int quizId, List<Question> questions) {
+        int n = questions.size();
+        this.quizId = quizId;
+        questionIds = new int[n];
+        kinds = new byte[n];
+        expected = new String[n];
+        expectedBoolean = new boolean[n];
+        options = new String[n][];
+        expectedIndex = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Question question = questions.get(i);
+            String correct = question.getCorrectAnswer() == null ? "" : question.getCorrectAnswer();
+            questionIds[i] = question.getQuestionId();
+            expected[i] = correct;
+            expectedIndex[i] = -1;
+            kinds[i] = TEXT;
+            if (question instanceof TrueFalseQuestion
+                    && ("true".equalsIgnoreCase(correct) || "false".equalsIgnoreCase(correct))) {
+                kinds[i] = BOOLEAN;
+                expectedBoolean[i] = "true".equalsIgnoreCase(correct);
+            } else if (question instanceof MultipleChoiceQuestion) {
+                String[] offered = ((MultipleChoiceQuestion) question).getOptions().toArray(new String[0]);
+                for (int o = 0; o < offered.length; o++) {
+                    if (correct.equalsIgnoreCase(offered[o])) {
+                        kinds[i] = CHOICE;
+                        options[i] = offered;
+                        expectedIndex[i] = o;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    // True when the key was compiled from exactly these questions, in this order, with these correct answers
+    public boolean matches(List<Question> questions) {
+        if (!hasQuestionIds(questions)) {
+            return false;
+        }
+        for (int i = 0; i < questionIds.length; i++) {
+            String correct = questions.get(i).getCorrectAnswer();
+            if (!expected[i].equals(correct == null ? "" : correct)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True when answers given against these questions line up with the key, whatever their correct answers say
+    public boolean hasQuestionIds(List<Question> questions) {
+        if (questions.size() != questionIds.length) {
+            return false;
+        }
+        for (int i = 0; i < questionIds.length; i++) {
+            if (questions.get(i).getQuestionId() != questionIds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Grade answers positionally; writes per-question scores into scores (if not null) and returns the total.
+     * True/false answers are parsed to a boolean and multiple-choice answers resolved to the option they name, so
+     * only short answers are compared as text.
+     */
+    public double grade(String[] answers, double[] scores) {
+        double total = 0.0;
+        for (int i = 0; i < questionIds.length; i++) {
+            String answer = i < answers.length ? answers[i] : null;
+            boolean correct;
+            if (answer == null) {
+                correct = false;
+            } else if (kinds[i] == BOOLEAN) {
+                correct = parseBoolean(answer) == (expectedBoolean[i] ? 1 : 0);
+            } else if (kinds[i] == CHOICE) {
+                correct = optionIndex(options[i], answer) == expectedIndex[i];
+            } else {
+                correct = matchesIgnoringCase(expected[i], answer);
+            }
+            double score = correct ? 1.0 : 0.0;
+            if (scores != null) {
+                scores[i] = score;
+            }
+            total += score;
+        }
+        return total;
+    }
+
+    // 1 for true, 0 for false (trimmed, ignoring case), -1 for anything else
+    static int parseBoolean(String answer) {
+        if (matchesIgnoringCase("true", answer)) {
+            return 1;
+        }
+        return matchesIgnoringCase("false", answer) ? 0 : -1;
+    }
+
+    // Index of the first option the answer names (trimmed, ignoring case), or -1
+    private static int optionIndex(String[] options, String answer) {
+        for (int o = 0; o < options.length; o++) {
+            if (options[o] != null && matchesIgnoringCase(options[o], answer)) {
+                return o;
+            }
+        }
+        return -1;
+    }
+
+    // Same result as expected.equalsIgnoreCase(answer.trim()) without creating the trimmed string
+    static boolean matchesIgnoringCase(String expected, String answer) {
+        // Choice answers are usually the very option strings that were offered
+        if (answer == expected) {
+            return true;
+        }
+        int end = answer.length();
+        if (end < expected.length()) {
+            return false;
+        }
+        int start = 0;
+        while (start < end && answer.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && answer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start != expected.length()) {
+            return false;
+        }
+        if (start == 0 && end == answer.length()) {
+            return expected.equalsIgnoreCase(answer);
+        }
+        return answer.regionMatches(true, start, expected, 0, expected.length());
+    }
+}
+
+// GradingEngine Class (per-quiz compiled answer keys)
+class GradingEngine {
+    private final ConcurrentHashMap<Integer, AnswerKey> keys = new ConcurrentHashMap<>();
+
+    // The cached key for the quiz, recompiled if the questions or their answers no longer match it; pass the current
+    // questions (DatabaseManager.loadQuestions), never a copy a client has been holding
+    public AnswerKey keyFor(int quizId, List<Question> questions) {
+        AnswerKey key = keys.get(quizId);
+        if (key == null || !key.matches(questions)) {
+            key = new AnswerKey(quizId, questions);
+            keys.put(quizId, key);
+        }
+        return key;
+    }
+
+    public AnswerKey compile(int quizId, List<Question> questions) {
+        AnswerKey key = new AnswerKey(quizId, questions);
+        keys.put(quizId, key);
+        return key;
+    }
+
+    public double grade(int quizId, String[] answers, double[] scores) {
+        AnswerKey key = keys.get(quizId);
+        if (key == null) {
+            throw new IllegalStateException("No answer key compiled for quiz " + quizId);
+        }
+        return key.grade(answers, scores);
+    }
+
+    public void invalidate(int quizId) {
+        keys.remove(quizId);
+    }
+}
+
 // User-defined Exceptions
 class UserAlreadyExistsException extends Exception {
     public UserAlreadyExistsException(String message) {
@@ -160,982 +480,7138 @@ class SessionExpiredException extends Exception {
     }
 }
 
-class DatabaseManager implements AutoCloseable {
-    private static final String URL = "jdbc:postgresql://localhost:5432/quizapp";
-    private static final String USER = "postgres";
-    private static final String PASSWORD = "root";
-
-    private Connection connection;
-
-    public DatabaseManager() {
-        try {
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("Database connected successfully.");
-        } catch (SQLException e) {
-            showErrorDialog(null, "Database Connection Error", "Unable to connect to database");
-            System.exit(1);
-        }
+class QuizAlreadySubmittedException extends Exception {
+    public QuizAlreadySubmittedException(String message) {
+        super(message);
     }
+}
 
-    public Connection getConnection() {
-        return connection;
+// ConnectionPool Class (bounded pool shared by every window)
+class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Statistics used to size the pool
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password) {
+        this(url, user, password,
+                Integer.getInteger("quizapp.pool.maxSize", 10),
+                Long.getLong("quizapp.pool.borrowTimeoutMillis", 10_000L),
+                Long.getLong("quizapp.pool.idleTimeoutMillis", 5 * 60_000L),
+                Long.getLong("quizapp.pool.maxLifetimeMillis", 30 * 60_000L),
+                Integer.getInteger("quizapp.pool.validationTimeoutSeconds", 2),
+                Integer.getInteger("quizapp.pool.statementCacheSize", 32));
     }
 
-    public void executeUpdate(String query, Object... params) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(query);
-        setStatementParams(statement, params);
-        statement.executeUpdate();
+    public ConnectionPool(String url, String user, String password, int maxSize, long borrowTimeoutMillis,
+            long idleTimeoutMillis, long maxLifetimeMillis, int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMillis, maxLifetimeMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
     }
 
-    public ResultSet executeQuery(String query, Object... params) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(query);
-        setStatementParams(statement, params);
-        return statement.executeQuery();
-    }
+    // Borrow a connection; closing the returned connection gives it back to the pool
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
 
-    private void setStatementParams(PreparedStatement statement, Object... params) throws SQLException {
-        for (int i = 0; i < params.length; i++) {
-            statement.setObject(i + 1, params[i]);
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            long waited = System.nanoTime() - start;
+            borrows.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+            active.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
         }
     }
 
-    public static void showErrorDialog(Component parent, String title, String message) {
-        JOptionPane.showMessageDialog(parent, message, title, JOptionPane.ERROR_MESSAGE);
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (pooled.isExpired(now) || !pooled.isValid()) {
+                destroy(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
     }
 
-    @Override
-    public void close() throws Exception {
-        if (connection != null)
-            connection.close();
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        created.increment();
+        total.incrementAndGet();
+        return new PooledConnection(raw);
     }
 
-    // User registration
-    public void registerUser(String name, String username, String password, String role)
-            throws SQLException, UserAlreadyExistsException {
-        // Check if username already exists
-        ResultSet rs = executeQuery("SELECT username FROM users WHERE username = ?", username);
-        if (rs.next()) {
-            throw new UserAlreadyExistsException("Username already exists");
+    private void giveBack(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || pooled.isExpired(System.currentTimeMillis()) || !pooled.reset()) {
+                destroy(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
         }
-        // Hash password
-        String hashedPassword = hashPassword(password);
-        executeUpdate("INSERT INTO users (name, username, password, role) VALUES (?, ?, ?, ?)", name, username,
-                hashedPassword, role);
     }
 
-    // User login
-    public String loginUser(String username, String password)
-            throws SQLException, UserNotFoundException, InvalidPasswordException {
-        ResultSet rs = executeQuery("SELECT user_id, password FROM users WHERE username = ?", username);
-        if (rs.next()) {
-            String hashedPassword = rs.getString("password");
-            int userId = rs.getInt("user_id");
-            if (verifyPassword(password, hashedPassword)) {
-                // Generate token
-                String token = generateToken();
-                // Set expiry time (e.g., 1 hour from now)
-                Timestamp expiryTime = new Timestamp(System.currentTimeMillis() + 3600 * 1000);
-                executeUpdate("INSERT INTO sessions (user_id, token, expiry_time) VALUES (?, ?, ?)", userId, token,
-                        expiryTime);
-                return token;
-            } else {
-                throw new InvalidPasswordException("Invalid password");
-            }
-        } else {
-            throw new UserNotFoundException("User not found");
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyed.increment();
+        try {
+            pooled.raw.close();
+        } catch (SQLException ignored) {
+            // Connection is already unusable
         }
     }
 
-    // Validate session
-    public User validateSession(String token) throws SQLException, SessionExpiredException {
-        ResultSet rs = executeQuery(
-                "SELECT s.user_id, s.expiry_time, u.name, u.username, u.role FROM sessions s JOIN users u ON s.user_id = u.user_id WHERE s.token = ?",
-                token);
-        if (rs.next()) {
-            Timestamp expiryTime = rs.getTimestamp("expiry_time");
-            if (expiryTime.after(new Timestamp(System.currentTimeMillis()))) {
-                int userId = rs.getInt("user_id");
-                String name = rs.getString("name");
-                String username = rs.getString("username");
-                String role = rs.getString("role");
-                return new User(userId, name, username, "", role); // password not needed
-            } else {
-                throw new SessionExpiredException("Session expired");
+    // Close connections that sat idle too long or outlived their max lifetime
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            if ((now - pooled.lastUsed > idleTimeoutMillis || now - pooled.createdAt > maxLifetimeMillis)
+                    && idle.remove(pooled)) {
+                destroy(pooled);
             }
-        } else {
-            return null; // Invalid token
         }
     }
 
-    // Logout user
-    public void logoutUser(String token) throws SQLException {
-        executeUpdate("DELETE FROM sessions WHERE token = ?", token);
+    public int getMaxSize() {
+        return maxSize;
     }
 
-    // Hash password (simple MD5 hash for demonstration)
-    private String hashPassword(String password) {
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("MD5");
-            byte[] array = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : array) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (java.security.NoSuchAlgorithmException e) {
-            // Should not happen
-            e.printStackTrace();
-            return null;
-        }
+    public int getActiveCount() {
+        return active.get();
     }
 
-    private boolean verifyPassword(String password, String hashedPassword) {
-        return hashPassword(password).equals(hashedPassword);
+    public int getIdleCount() {
+        return idle.size();
     }
 
-    // Generate token
-    private String generateToken() {
-        return java.util.UUID.randomUUID().toString();
+    public int getWaitingCount() {
+        return permits.getQueueLength();
     }
-}
 
-// LoginGUI Class
-class LoginGUI extends JFrame {
-    private JTextField usernameField;
-    private JPasswordField passwordField;
-    private JButton loginButton;
-    private JButton registerButton;
-    private DatabaseManager databaseManager;
+    public double getUtilisation() {
+        return (double) active.get() / maxSize;
+    }
 
-    public LoginGUI() {
-        super("Login");
-        databaseManager = new DatabaseManager();
+    public double getAverageWaitMillis() {
+        long count = borrows.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
 
-        // Set up main panel
-        JPanel mainPanel = new JPanel(new BorderLayout());
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
 
-        // Create components
-        usernameField = new JTextField(15);
-        passwordField = new JPasswordField(15);
-        loginButton = new JButton("Login");
-        registerButton = new JButton("Register");
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
 
-        // Create input panel
-        JPanel inputPanel = new JPanel(new GridBagLayout());
-        GridBagConstraints gbc = new GridBagConstraints();
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
 
-        // Username Label and Field
-        gbc.gridx = 0;
-        gbc.gridy = 0;
-        gbc.anchor = GridBagConstraints.EAST;
-        gbc.insets = new Insets(5, 5, 5, 5);
-        inputPanel.add(new JLabel("Username:"), gbc);
+    public double getStatementCacheHitRatio() {
+        long hits = statementHits.sum();
+        long lookups = hits + statementMisses.sum();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 0;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(usernameField, gbc);
+    public String getStats() {
+        return String.format(
+                "pool[max=%d, active=%d, idle=%d, open=%d, waiting=%d, utilisation=%.0f%%, borrows=%d, timeouts=%d, avgWait=%.2fms, maxWait=%.2fms, created=%d, destroyed=%d]"
+                        + " statements[hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%]",
+                maxSize, getActiveCount(), getIdleCount(), total.get(), getWaitingCount(), getUtilisation() * 100,
+                borrows.sum(), timeouts.sum(), getAverageWaitMillis(), getMaxWaitMillis(), created.sum(),
+                destroyed.sum(), statementHits.sum(), statementMisses.sum(), statementEvictions.sum(),
+                getStatementCacheHitRatio() * 100);
+    }
 
-        // Password Label and Field
-        gbc.gridx = 0;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.EAST;
-        inputPanel.add(new JLabel("Password:"), gbc);
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(passwordField, gbc);
+    // A physical connection plus the bookkeeping the pool needs
+    private class PooledConnection {
+        final Connection raw;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsed = createdAt;
+
+        // LRU of prepared statements keyed by SQL text; only touched by the thread holding the lease
+        final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    statementEvictions.increment();
+                    eldest.getValue().closeQuietly();
+                    return true;
+                }
+                return false;
+            }
+        };
 
-        // Buttons panel
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
-        buttonPanel.add(loginButton);
-        buttonPanel.add(registerButton);
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
 
-        // Add components to main panel
-        mainPanel.add(inputPanel, BorderLayout.CENTER);
-        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        boolean isExpired(long now) {
+            return now - createdAt > maxLifetimeMillis || now - lastUsed > idleTimeoutMillis;
+        }
 
-        // Add main panel to frame
-        setContentPane(mainPanel);
+        boolean isValid() {
+            try {
+                return raw.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
 
-        // Add action listeners
-        loginButton.addActionListener(e -> login());
-        registerButton.addActionListener(e -> openRegistration());
+        // Undo anything a borrower may have changed before the next borrower sees it
+        boolean reset() {
+            try {
+                if (raw.isClosed()) {
+                    return false;
+                }
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                raw.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
 
-        // Set default button
-        getRootPane().setDefaultButton(loginButton);
+        // Reuse the statement for this SQL if it is free; otherwise prepare a fresh, uncached one
+        PreparedStatement prepare(String sql) throws SQLException {
+            if (statementCacheSize <= 0) {
+                return raw.prepareStatement(sql);
+            }
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.statement.isClosed()) {
+                statements.remove(sql);
+                cached = null;
+            }
+            if (cached != null) {
+                if (cached.inUse) {
+                    statementMisses.increment();
+                    return raw.prepareStatement(sql);
+                }
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                cached = new CachedStatement(raw.prepareStatement(sql));
+                statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            return cached.handle();
+        }
 
-        // Frame settings
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        pack(); // Adjust size based on components
-        setLocationRelativeTo(null); // Center on screen
+        // Hand out a proxy whose close() returns the connection instead of closing it
+        Connection lease() {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (released.compareAndSet(false, true)) {
+                                    giveBack(this);
+                                }
+                                return null;
+                            case "isClosed":
+                                return released.get() || raw.isClosed();
+                            case "prepareStatement":
+                                if (args.length == 1 && !released.get()) {
+                                    return prepare((String) args[0]);
+                                }
+                                break;
+                            case "unwrap":
+                                if (((Class<?>) args[0]).isInstance(raw)) {
+                                    return raw;
+                                }
+                                break;
+                            default:
+                                if (released.get()) {
+                                    throw new SQLException("Connection has been returned to the pool");
+                                }
+                        }
+                        try {
+                            return method.invoke(raw, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
     }
 
-    private void login() {
-        String username = usernameField.getText().trim();
-        String password = new String(passwordField.getPassword());
+    // A cached statement; close() on the handle resets it for reuse instead of closing it
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
 
-        try {
-            String token = databaseManager.loginUser(username, password);
-            User user = databaseManager.validateSession(token);
-            // Close login window
-            dispose();
-            // Open main application GUI
-            new QuizAppGUI(user, token, databaseManager).display();
-        } catch (UserNotFoundException | InvalidPasswordException | SQLException | SessionExpiredException ex) {
-            DatabaseManager.showErrorDialog(this, "Login Error", ex.getMessage());
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
         }
-    }
 
-    private void openRegistration() {
-        new RegistrationGUI(databaseManager).setVisible(true);
+        PreparedStatement handle() {
+            AtomicBoolean released = new AtomicBoolean();
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (released.compareAndSet(false, true)) {
+                                    reset();
+                                }
+                                return null;
+                            case "isClosed":
+                                return released.get() || statement.isClosed();
+                            default:
+                                if (released.get()) {
+                                    throw new SQLException("Statement has been closed");
+                                }
+                        }
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        private void reset() {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+            } catch (SQLException e) {
+                closeQuietly();
+            } finally {
+                inUse = false;
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // Statement is being discarded anyway
+            }
+        }
     }
 }
 
-// RegistrationGUI Class
-class RegistrationGUI extends JFrame {
-    private JTextField nameField;
-    private JTextField usernameField;
-    private JPasswordField passwordField;
-    private JRadioButton teacherRadioButton;
-    private JRadioButton studentRadioButton;
-    private ButtonGroup roleGroup;
-    private JButton registerButton;
-    private DatabaseManager databaseManager;
+// RowMapper Interface (maps the current row of a ResultSet)
+interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
 
-    public RegistrationGUI(DatabaseManager databaseManager) {
-        super("Register");
-        this.databaseManager = databaseManager;
+// RowCallback Interface (consumes rows one at a time without collecting them)
+interface RowCallback {
+    void processRow(ResultSet rs) throws SQLException;
+}
 
-        // Set up main panel
-        JPanel mainPanel = new JPanel(new BorderLayout());
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+// TransactionCallback Interface (work done on one connection inside a single transaction)
+interface TransactionCallback<T> {
+    T doInTransaction(Connection connection) throws SQLException;
+}
 
-        // Create components
-        nameField = new JTextField(15);
-        usernameField = new JTextField(15);
-        passwordField = new JPasswordField(15);
-        teacherRadioButton = new JRadioButton("Teacher");
-        studentRadioButton = new JRadioButton("Student");
-        roleGroup = new ButtonGroup();
-        roleGroup.add(teacherRadioButton);
-        roleGroup.add(studentRadioButton);
-        studentRadioButton.setSelected(true);
-        registerButton = new JButton("Register");
+// AsyncDataAccess Class (runs database work off the Event Dispatch Thread)
+class AsyncDataAccess implements AutoCloseable {
+    // A unit of database work that may throw any checked exception
+    interface DbCall<T> {
+        T call() throws Exception;
+    }
 
-        // Create input panel
-        JPanel inputPanel = new JPanel(new GridBagLayout());
-        GridBagConstraints gbc = new GridBagConstraints();
+    private final ExecutorService executor;
 
-        gbc.insets = new Insets(5, 5, 5, 5); // Add spacing between components
+    public AsyncDataAccess() {
+        executor = newTaskExecutor("db-worker");
+    }
 
-        // Name Label and Field
-        gbc.gridx = 0;
-        gbc.gridy = 0;
-        gbc.anchor = GridBagConstraints.EAST;
-        inputPanel.add(new JLabel("Name:"), gbc);
+    // Virtual thread per task where the runtime has them (Java 21+), otherwise a cached pool of daemon threads
+    static ExecutorService newTaskExecutor(String threadName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, threadName + "-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 0;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(nameField, gbc);
+    // Run the call on a worker thread; cancelling the future interrupts the worker
+    public <T> CompletableFuture<T> supply(DbCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                future.complete(call.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
 
-        // Username Label and Field
-        gbc.gridx = 0;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.EAST;
-        inputPanel.add(new JLabel("Username:"), gbc);
+    /*
+     * Run the call on a worker thread and deliver the outcome on the EDT. The returned future completes on the
+     * EDT after the callback has run; cancelling it (from the EDT) guarantees neither callback runs, so a load
+     * superseded by a newer one can never overwrite the newer result.
+     */
+    public <T> CompletableFuture<T> load(DbCall<T> call, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<T> work = supply(call);
+        CompletableFuture<T> delivered = new CompletableFuture<>();
+        delivered.whenComplete((result, error) -> {
+            if (delivered.isCancelled()) {
+                work.cancel(true);
+            }
+        });
+        work.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (delivered.isDone()) {
+                return;
+            }
+            if (error == null) {
+                onSuccess.accept(result);
+                delivered.complete(result);
+            } else {
+                Throwable cause = unwrap(error);
+                onError.accept(cause);
+                delivered.completeExceptionally(cause);
+            }
+        }));
+        return delivered;
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(usernameField, gbc);
+    // Cancel a previous load, if any, before a new one replaces it
+    public static void cancel(Future<?> pending) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+    }
 
-        // Password Label and Field
-        gbc.gridx = 0;
-        gbc.gridy = 2;
-        gbc.anchor = GridBagConstraints.EAST;
-        inputPanel.add(new JLabel("Password:"), gbc);
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException
+                || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 2;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(passwordField, gbc);
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
 
-        // Role Label and Radio Buttons
-        gbc.gridx = 0;
-        gbc.gridy = 3;
-        gbc.anchor = GridBagConstraints.EAST;
-        inputPanel.add(new JLabel("Role:"), gbc);
+// SessionCache Class (token -> user, each entry expiring with its session row)
+class SessionCache {
+    private static class Entry {
+        final User user;
+        final long expiresAt;
 
-        JPanel rolePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        rolePanel.add(teacherRadioButton);
-        rolePanel.add(studentRadioButton);
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
 
-        gbc.gridx = 1;
-        gbc.gridy = 3;
-        gbc.anchor = GridBagConstraints.WEST;
-        inputPanel.add(rolePanel, gbc);
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
-        // Add components to main panel
-        mainPanel.add(inputPanel, BorderLayout.CENTER);
-        mainPanel.add(registerButton, BorderLayout.SOUTH);
+    public void put(String token, User user, long expiresAt) {
+        entries.put(token, new Entry(user, expiresAt));
+    }
 
-        // Add action listener
-        registerButton.addActionListener(e -> register());
+    // Returns the cached user, or null on a miss; throws if the cached session has expired
+    public User get(String token) throws SessionExpiredException {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            throw new SessionExpiredException("Session expired");
+        }
+        return entry.user;
+    }
 
-        // Add main panel to frame
-        setContentPane(mainPanel);
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
 
-        // Frame settings
-        pack();
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    public int evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (e.getValue().expiresAt <= now && entries.remove(e.getKey(), e.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
     }
 
-    private void register() {
-        String name = nameField.getText().trim();
-        String username = usernameField.getText().trim();
-        String password = new String(passwordField.getPassword());
-        String role = teacherRadioButton.isSelected() ? "teacher" : "student";
+    public int size() {
+        return entries.size();
+    }
 
-        try {
-            databaseManager.registerUser(name, username, password, role);
-            JOptionPane.showMessageDialog(this, "Registration successful. Please login.");
-            dispose();
-        } catch (UserAlreadyExistsException ex) {
-            DatabaseManager.showErrorDialog(this, "Registration Error", ex.getMessage());
-        } catch (SQLException ex) {
-            DatabaseManager.showErrorDialog(this, "Database Error", ex.getMessage());
-        }
+    public String getStats() {
+        long h = hits.sum();
+        long lookups = h + misses.sum();
+        return String.format("sessions[cached=%d, hits=%d, misses=%d, hitRatio=%.1f%%]", size(), h, misses.sum(),
+                lookups == 0 ? 0.0 : 100.0 * h / lookups);
     }
 }
 
-// QuizAppGUI Class (Implements QuizOperations Interface)
-class QuizAppGUI implements QuizOperations {
-    private JFrame mainFrame;
-    private JButton createQuizButton;
-    private JButton attendQuizButton;
-    private JButton viewResponsesButton;
-    private JButton logoutButton;
-    private JButton manageQuizzesButton;
-    private DatabaseManager databaseManager;
-    private User user;
-    private String token;
+// SessionTokenSigner Class (self-contained HMAC-signed session tokens)
+class SessionTokenSigner {
+    static final String PREFIX = "v1.";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // Key id -> secret; the first key signs new tokens, every key is accepted for verification
+    private final LinkedHashMap<String, byte[]> keys;
+    private final String currentKeyId;
+    private final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final java.security.SecureRandom random = new java.security.SecureRandom();
+
+    public SessionTokenSigner(LinkedHashMap<String, byte[]> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one signing key is required");
+        }
+        this.keys = new LinkedHashMap<>(keys);
+        this.currentKeyId = keys.keySet().iterator().next();
+    }
 
-    public QuizAppGUI(User user, String token, DatabaseManager databaseManager) {
-        this.user = user;
-        this.token = token;
-        this.databaseManager = databaseManager;
+    /*
+     * Keys come from quizapp.sessions.keys as "id:base64secret,id:base64secret", newest first. To rotate, put
+     * the new key in front and keep the old one until its tokens have expired. Without the property a random
+     * key is generated, so tokens do not survive a restart.
+     */
+    public static SessionTokenSigner fromSystemProperties() {
+        LinkedHashMap<String, byte[]> keys = new LinkedHashMap<>();
+        String configured = System.getProperty("quizapp.sessions.keys");
+        if (configured != null && !configured.isBlank()) {
+            for (String entry : configured.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Malformed session key entry: " + entry);
+                }
+                keys.put(entry.substring(0, colon).trim(),
+                        Base64.getDecoder().decode(entry.substring(colon + 1).trim()));
+            }
+        } else {
+            byte[] secret = new byte[32];
+            new java.security.SecureRandom().nextBytes(secret);
+            keys.put("local", secret);
+        }
+        return new SessionTokenSigner(keys);
+    }
 
-        mainFrame = new JFrame("Quiz Management System");
+    public static boolean isSignedToken(String token) {
+        return token != null && token.startsWith(PREFIX);
+    }
 
-        // Set up main panel
-        JPanel mainPanel = new JPanel(new BorderLayout());
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+    public String issue(User user, long expiresAt) {
+        byte[] nonce = new byte[12];
+        random.nextBytes(nonce);
+        String payload = String.join("\n", Integer.toString(user.userId), user.username, user.name, user.role,
+                Long.toString(expiresAt), base64(nonce));
+        String body = PREFIX + currentKeyId + "." + base64(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + base64(sign(currentKeyId, body));
+    }
 
-        // Welcome Label
-        JLabel welcomeLabel = new JLabel("Welcome, " + user.name + " (" + user.role + ")", JLabel.CENTER);
-        welcomeLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        mainPanel.add(welcomeLabel, BorderLayout.NORTH);
+    // Returns the user for a valid token, null for a forged, malformed or revoked one
+    public User verify(String token) throws SessionExpiredException {
+        if (!isSignedToken(token)) {
+            return null;
+        }
+        int sigStart = token.lastIndexOf('.');
+        int keyEnd = token.indexOf('.', PREFIX.length());
+        if (sigStart <= keyEnd || keyEnd < 0) {
+            return null;
+        }
+        String keyId = token.substring(PREFIX.length(), keyEnd);
+        if (!keys.containsKey(keyId)) {
+            return null;
+        }
+        String body = token.substring(0, sigStart);
+        byte[] signature;
+        String[] fields;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(sigStart + 1));
+            if (!java.security.MessageDigest.isEqual(signature, sign(keyId, body))) {
+                return null;
+            }
+            fields = new String(Base64.getUrlDecoder().decode(token.substring(keyEnd + 1, sigStart)),
+                    StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (fields.length != 6 || revoked.containsKey(token)) {
+            return null;
+        }
+        long expiresAt = Long.parseLong(fields[4]);
+        if (expiresAt <= System.currentTimeMillis()) {
+            throw new SessionExpiredException("Session expired");
+        }
+        // password not needed
+        return new User(Integer.parseInt(fields[0]), fields[2], fields[1], "", fields[3]);
+    }
 
-        // Buttons Panel
-        JPanel buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(4, 1, 10, 10)); // Add spacing between buttons
+    // Revocations only need to be remembered until the token would have expired anyway
+    public void revoke(String token) {
+        try {
+            User user = verify(token);
+            if (user != null) {
+                String payload = new String(Base64.getUrlDecoder().decode(
+                        token.substring(token.indexOf('.', PREFIX.length()) + 1, token.lastIndexOf('.'))),
+                        StandardCharsets.UTF_8);
+                revoked.put(token, Long.parseLong(payload.split("\n", -1)[4]));
+            }
+        } catch (SessionExpiredException e) {
+            // Already unusable
+        }
+    }
 
-        createQuizButton = new JButton("Create Quiz");
-        attendQuizButton = new JButton("Attend Quiz");
-        viewResponsesButton = new JButton("View Responses");
+    public int pruneRevocations() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        return before - revoked.size();
+    }
 
-        buttonPanel.add(createQuizButton);
-        buttonPanel.add(attendQuizButton);
-        buttonPanel.add(viewResponsesButton);
+    public int getRevokedCount() {
+        return revoked.size();
+    }
 
-        // Adjust buttons based on user role
-        if ("teacher".equals(user.role)) {
-            createQuizButton.setEnabled(true);
-            viewResponsesButton.setEnabled(true);
-            attendQuizButton.setEnabled(false);
-            manageQuizzesButton = new JButton("Manage Quizzes");
-            buttonPanel.add(manageQuizzesButton);
-            manageQuizzesButton.addActionListener(e -> manageQuizzes());
-        } else if ("student".equals(user.role)) {
-            createQuizButton.setEnabled(false);
-            viewResponsesButton.setEnabled(false);
-            attendQuizButton.setEnabled(true);
+    private byte[] sign(String keyId, String body) {
+        Mac mac = macs.get().computeIfAbsent(keyId, id -> {
+            try {
+                Mac m = Mac.getInstance(ALGORITHM);
+                m.init(new SecretKeySpec(keys.get(id), ALGORITHM));
+                return m;
+            } catch (java.security.GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC unavailable", e);
+            }
+        });
+        return mac.doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
+
+// ByteEncoding Class (hex and base64 written straight into caller-supplied buffers, no per-byte objects)
+final class ByteEncoding {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+            .toCharArray();
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        for (int i = 0; i < BASE64.length; i++) {
+            BASE64_VALUES[BASE64[i]] = (byte) i;
         }
+    }
 
-        mainPanel.add(buttonPanel, BorderLayout.CENTER);
+    private ByteEncoding() {
+    }
 
-        // Logout Button
-        logoutButton = new JButton("Logout");
-        mainPanel.add(logoutButton, BorderLayout.SOUTH);
+    // Writes 2 * len lowercase hex digits at dst[dstOff] and returns the number of chars written
+    static int encodeHex(byte[] src, int off, int len, char[] dst, int dstOff) {
+        for (int i = 0; i < len; i++) {
+            int b = src[off + i];
+            dst[dstOff + 2 * i] = HEX[(b >> 4) & 0x0f];
+            dst[dstOff + 2 * i + 1] = HEX[b & 0x0f];
+        }
+        return 2 * len;
+    }
 
-        // Add action listeners
-        createQuizButton.addActionListener(e -> createQuiz());
-        attendQuizButton.addActionListener(e -> attendQuiz());
-        viewResponsesButton.addActionListener(e -> viewResponses());
-        logoutButton.addActionListener(e -> logout());
+    // Compares hex against the hex form of bytes in constant time, without building the hex string
+    static boolean hexEquals(byte[] bytes, CharSequence hex) {
+        if (hex.length() != 2 * bytes.length) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            diff |= hex.charAt(2 * i) ^ HEX[(bytes[i] >> 4) & 0x0f];
+            diff |= hex.charAt(2 * i + 1) ^ HEX[bytes[i] & 0x0f];
+        }
+        return diff == 0;
+    }
 
-        // Set up frame
-        mainFrame.setContentPane(mainPanel);
-        mainFrame.setSize(400, 300);
-        mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        mainFrame.setLocationRelativeTo(null);
+    // Unpadded length of the base64 form of len bytes
+    static int base64Length(int len) {
+        return (len * 4 + 2) / 3;
     }
 
-    public void display() {
-        mainFrame.setVisible(true);
+    // Writes unpadded standard base64 at dst[dstOff] and returns the number of chars written
+    static int encodeBase64(byte[] src, int off, int len, char[] dst, int dstOff) {
+        int p = dstOff;
+        int end = off + len;
+        int i = off;
+        for (; i + 3 <= end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[p++] = BASE64[bits >>> 18];
+            dst[p++] = BASE64[(bits >>> 12) & 0x3f];
+            dst[p++] = BASE64[(bits >>> 6) & 0x3f];
+            dst[p++] = BASE64[bits & 0x3f];
+        }
+        int remaining = end - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xff) << 16 | (remaining == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[p++] = BASE64[bits >>> 18];
+            dst[p++] = BASE64[(bits >>> 12) & 0x3f];
+            if (remaining == 2) {
+                dst[p++] = BASE64[(bits >>> 6) & 0x3f];
+            }
+        }
+        return p - dstOff;
     }
 
-    private void logout() {
+    /*
+     * Decodes unpadded base64 from src[start, end) into dst[dstOff] and returns the number of bytes written, or -1
+     * if the input is not valid base64 or does not fit.
+     */
+    static int decodeBase64(CharSequence src, int start, int end, byte[] dst, int dstOff) {
+        int length = end - start;
+        if (length % 4 == 1 || dstOff + length * 3 / 4 > dst.length) {
+            return -1;
+        }
+        int p = dstOff;
+        int bits = 0;
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[p++] = (byte) (bits >> 16);
+                dst[p++] = (byte) (bits >> 8);
+                dst[p++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            dst[p++] = (byte) (bits >> 10);
+            dst[p++] = (byte) (bits >> 2);
+        } else if (count == 2) {
+            dst[p++] = (byte) (bits >> 4);
+        }
+        return p - dstOff;
+    }
+}
+
+// PasswordVerifier Interface (one algorithm per implementation; every encoded hash names its own algorithm)
+interface PasswordVerifier {
+    // Whether encoded was produced by this algorithm
+    boolean supports(String encoded);
+
+    boolean verify(String password, String encoded);
+
+    // Whether encoded should be replaced by a fresh hash the next time the plain password is known
+    boolean needsRehash(String encoded);
+}
+
+// PasswordHasher Interface (a verifier that can also write new hashes; legacy formats are verifiers only)
+interface PasswordHasher extends PasswordVerifier {
+    String hash(String password);
+}
+
+// Pbkdf2PasswordHasher Class (salted PBKDF2-HMAC-SHA256, encoded as $pbkdf2-sha256$i=<iterations>$<salt>$<hash>)
+class Pbkdf2PasswordHasher implements PasswordHasher {
+    static final String PREFIX = "$pbkdf2-sha256$i=";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+
+    private final int iterations;
+    private final java.security.SecureRandom random = new java.security.SecureRandom();
+    private final ThreadLocal<SecretKeyFactory> factories = ThreadLocal.withInitial(() -> {
         try {
-            databaseManager.logoutUser(token);
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(mainFrame, "Logout Error", e.getMessage());
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        }
+    });
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1_000) {
+            throw new IllegalArgumentException("PBKDF2 needs at least 1000 iterations, got " + iterations);
         }
-        mainFrame.dispose();
-        new LoginGUI().setVisible(true);
+        this.iterations = iterations;
     }
 
-    private void manageQuizzes() {
-        new QuizManager(databaseManager, user).setVisible(true);
+    public int getIterations() {
+        return iterations;
     }
 
     @Override
-    public void createQuiz() {
-        new QuizCreator(databaseManager, user).setVisible(true);
+    public boolean supports(String encoded) {
+        return encoded != null && encoded.startsWith(PREFIX);
     }
 
     @Override
-    public void attendQuiz() {
-        new QuizAttender(databaseManager, user).setVisible(true);
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] derived = derive(password, salt, iterations, HASH_BYTES);
+
+        char[] buffer = new char[ByteEncoding.base64Length(HASH_BYTES)];
+        StringBuilder sb = new StringBuilder(96).append(PREFIX).append(iterations).append('$');
+        sb.append(buffer, 0, ByteEncoding.encodeBase64(salt, 0, salt.length, buffer, 0)).append('$');
+        sb.append(buffer, 0, ByteEncoding.encodeBase64(derived, 0, derived.length, buffer, 0));
+        return sb.toString();
     }
 
     @Override
-    public void viewResponses() {
-        new QuizResponseViewer(databaseManager, user).setVisible(true);
+    public boolean verify(String password, String encoded) {
+        int saltStart = encoded.indexOf('$', PREFIX.length()) + 1;
+        int hashStart = saltStart > 0 ? encoded.indexOf('$', saltStart) + 1 : 0;
+        int rounds = iterationsOf(encoded);
+        if (hashStart <= 0 || rounds < 1) {
+            return false;
+        }
+        byte[] salt = new byte[64];
+        byte[] expected = new byte[64];
+        int saltLength = ByteEncoding.decodeBase64(encoded, saltStart, hashStart - 1, salt, 0);
+        int hashLength = ByteEncoding.decodeBase64(encoded, hashStart, encoded.length(), expected, 0);
+        if (saltLength <= 0 || hashLength <= 0) {
+            return false;
+        }
+        byte[] actual = derive(password, Arrays.copyOf(salt, saltLength), rounds, hashLength);
+        return java.security.MessageDigest.isEqual(actual, Arrays.copyOf(expected, hashLength));
     }
-}
 
-// QuizOperations Interface
-interface QuizOperations {
-    void createQuiz();
+    @Override
+    public boolean needsRehash(String encoded) {
+        return !supports(encoded) || iterationsOf(encoded) < iterations;
+    }
 
-    void attendQuiz();
+    // Iteration count of an encoded hash, or -1 if it is malformed
+    private static int iterationsOf(String encoded) {
+        int end = encoded.indexOf('$', PREFIX.length());
+        if (end <= PREFIX.length() || end - PREFIX.length() > 9) {
+            return -1;
+        }
+        int rounds = 0;
+        for (int i = PREFIX.length(); i < end; i++) {
+            char c = encoded.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            rounds = rounds * 10 + (c - '0');
+        }
+        return rounds;
+    }
 
-    void viewResponses();
+    private byte[] derive(String password, byte[] salt, int rounds, int length) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, rounds, length * 8);
+        try {
+            return factories.get().generateSecret(spec).getEncoded();
+        } catch (java.security.spec.InvalidKeySpecException e) {
+            throw new IllegalStateException("PBKDF2 derivation failed", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
 }
 
-// QuizCreator Class
-class QuizCreator extends JFrame {
-    private JTextField quizTitleField;
-    private JPanel questionsPanel;
-    private JButton addQuestionButton;
-    private JButton saveButton;
-    private DatabaseManager databaseManager;
-    private List<QuestionCreatorPanel> questionPanels;
-    private User user;
+// LegacyMd5PasswordVerifier Class (verifies the unsalted MD5 hex hashes written by earlier versions)
+class LegacyMd5PasswordVerifier implements PasswordVerifier {
+    @Override
+    public boolean supports(String encoded) {
+        if (encoded == null || encoded.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-    public QuizCreator(DatabaseManager databaseManager, User user) {
-        super("Create Quiz");
-        this.databaseManager = databaseManager;
-        this.user = user;
+    @Override
+    public boolean verify(String password, String encoded) {
+        try {
+            java.security.MessageDigest md = java.security.MessageDigest.getInstance("MD5");
+            return ByteEncoding.hexEquals(md.digest(password.getBytes()), encoded);
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 unavailable", e);
+        }
+    }
 
-        // Set up main panel
-        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+    @Override
+    public boolean needsRehash(String encoded) {
+        return true;
+    }
+}
 
-        // Quiz Title Panel
-        JPanel titlePanel = new JPanel(new BorderLayout());
-        titlePanel.add(new JLabel("Quiz Title:"), BorderLayout.WEST);
-        quizTitleField = new JTextField(30);
-        titlePanel.add(quizTitleField, BorderLayout.CENTER);
+// PasswordHashing Class (hashes with the current algorithm, verifies with whichever one wrote the hash)
+class PasswordHashing implements PasswordHasher {
+    private final PasswordHasher current;
+    private final List<PasswordVerifier> accepted;
 
-        // Questions Panel
-        questionsPanel = new JPanel();
-        questionsPanel.setLayout(new BoxLayout(questionsPanel, BoxLayout.Y_AXIS));
-        JScrollPane scrollPane = new JScrollPane(questionsPanel);
+    public PasswordHashing(PasswordHasher current, PasswordVerifier... legacy) {
+        this.current = current;
+        this.accepted = new ArrayList<>();
+        accepted.add(current);
+        accepted.addAll(Arrays.asList(legacy));
+    }
 
-        // Buttons Panel
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
-        addQuestionButton = new JButton("Add Question");
-        saveButton = new JButton("Save Quiz");
-        buttonPanel.add(addQuestionButton);
-        buttonPanel.add(saveButton);
+    // PBKDF2 with -Dquizapp.passwords.pbkdf2Iterations (pick it with the JMH benchmarks), MD5 accepted for upgrade
+    static PasswordHashing fromSystemProperties() {
+        return new PasswordHashing(
+                new Pbkdf2PasswordHasher(Integer.getInteger("quizapp.passwords.pbkdf2Iterations", 310_000)),
+                new LegacyMd5PasswordVerifier());
+    }
 
-        // Add components to main panel
-        mainPanel.add(titlePanel, BorderLayout.NORTH);
-        mainPanel.add(scrollPane, BorderLayout.CENTER);
-        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+    @Override
+    public boolean supports(String encoded) {
+        return verifierFor(encoded) != null;
+    }
 
-        // Add action listeners
-        addQuestionButton.addActionListener(e -> addQuestionPanel());
-        saveButton.addActionListener(e -> saveQuiz());
+    @Override
+    public String hash(String password) {
+        return current.hash(password);
+    }
 
-        // Initialize question panels list
-        questionPanels = new ArrayList<>();
+    @Override
+    public boolean verify(String password, String encoded) {
+        PasswordVerifier verifier = verifierFor(encoded);
+        return verifier != null && verifier.verify(password, encoded);
+    }
 
-        // Add initial question panel
-        addQuestionPanel();
+    @Override
+    public boolean needsRehash(String encoded) {
+        return current.needsRehash(encoded);
+    }
 
-        // Set up frame
-        setContentPane(mainPanel);
-        setSize(700, 500);
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    private PasswordVerifier verifierFor(String encoded) {
+        for (PasswordVerifier verifier : accepted) {
+            if (verifier.supports(encoded)) {
+                return verifier;
+            }
+        }
+        return null;
     }
+}
 
-    public void display() {
-        setVisible(true);
+// QuestionCache Class (size-bounded LRU of fully built, immutable question lists per quiz)
+class QuestionCache {
+    // Loads a quiz's questions on a cache miss
+    interface Loader {
+        List<Question> load(int quizId) throws SQLException;
     }
 
-    private void addQuestionPanel() {
-        int questionNumber = questionPanels.size() + 1;
-        QuestionCreatorPanel questionPanel = new QuestionCreatorPanel(this, questionNumber);
-        questionPanels.add(questionPanel);
-        questionsPanel.add(questionPanel);
-        questionsPanel.revalidate();
-        questionsPanel.repaint();
+    private static class Entry {
+        final List<Question> questions;
+        final long weight;
+
+        Entry(List<Question> questions, long weight) {
+            this.questions = questions;
+            this.weight = weight;
+        }
     }
 
-    public void removeQuestionPanel(QuestionCreatorPanel questionPanel) {
-        questionPanels.remove(questionPanel);
-        questionsPanel.remove(questionPanel);
-        updateQuestionNumbers();
-        questionsPanel.revalidate();
-        questionsPanel.repaint();
+    private final long maxBytes;
+    private long currentBytes;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // Concurrent misses for the same quiz share one query
+    private final ConcurrentHashMap<Integer, CompletableFuture<List<Question>>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on invalidation so a load that raced with it is not cached
+    private final ConcurrentHashMap<Integer, Long> generations = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public QuestionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
     }
 
-    private void updateQuestionNumbers() {
-        int number = 1;
-        for (QuestionCreatorPanel qPanel : questionPanels) {
-            qPanel.updateQuestionNumber(number++);
+    public List<Question> get(int quizId, Loader loader) throws SQLException {
+        synchronized (this) {
+            Entry entry = entries.get(quizId);
+            if (entry != null) {
+                hits.increment();
+                return entry.questions;
+            }
         }
-    }
+        misses.increment();
 
-    private void saveQuiz() {
-        String title = quizTitleField.getText().trim();
+        CompletableFuture<List<Question>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Question>> pending = inFlight.putIfAbsent(quizId, mine);
+        if (pending != null) {
+            return await(pending);
+        }
+        long generation = generations.getOrDefault(quizId, 0L);
+        loads.increment();
+        try {
+            List<Question> questions = List.copyOf(loader.load(quizId));
+            put(quizId, questions, generation);
+            mine.complete(questions);
+            return questions;
+        } catch (SQLException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(quizId, mine);
+        }
+    }
 
-        if (title.isEmpty() || questionPanels.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Please enter quiz title and at least one question.", "Input Error",
-                    JOptionPane.WARNING_MESSAGE);
+    private synchronized void put(int quizId, List<Question> questions, long generation) {
+        if (generations.getOrDefault(quizId, 0L) != generation) {
+            return;
+        }
+        long weight = weigh(questions);
+        if (weight > maxBytes) {
             return;
         }
+        Entry previous = entries.put(quizId, new Entry(questions, weight));
+        if (previous != null) {
+            currentBytes -= previous.weight;
+        }
+        currentBytes += weight;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
 
-        try {
-            databaseManager.executeUpdate("INSERT INTO quizzes (title) VALUES (?)", title);
-            ResultSet rs = databaseManager.executeQuery("SELECT currval('quizzes_quiz_id_seq') AS quiz_id");
-            rs.next();
-            int quizId = rs.getInt("quiz_id");
+    // The cached questions, or null on a miss; never goes to the database
+    public synchronized List<Question> getIfPresent(int quizId) {
+        Entry entry = entries.get(quizId);
+        return entry == null ? null : entry.questions;
+    }
 
-            for (QuestionCreatorPanel qPanel : questionPanels) {
-                Question question = qPanel.createQuestion(quizId);
+    public synchronized void invalidate(int quizId) {
+        generations.merge(quizId, 1L, Long::sum);
+        Entry removed = entries.remove(quizId);
+        if (removed != null) {
+            currentBytes -= removed.weight;
+        }
+    }
 
-                if (question == null || question.getQuestionText().isEmpty()) {
-                    continue; // Skip empty questions
+    // Rough heap footprint: object headers plus two bytes per character of text
+    static long weigh(List<Question> questions) {
+        long bytes = 64;
+        for (Question question : questions) {
+            bytes += 96 + 2L * (length(question.getQuestionText()) + length(question.getCorrectAnswer()));
+            if (question instanceof MultipleChoiceQuestion) {
+                for (String option : ((MultipleChoiceQuestion) question).getOptions()) {
+                    bytes += 48 + 2L * length(option);
                 }
+            }
+        }
+        return bytes;
+    }
 
-                // Insert question into database
-                String questionText = question.getQuestionText();
-                String questionType = question.getQuestionType();
-                String options = null;
-                if (question instanceof MultipleChoiceQuestion) {
-                    options = String.join("~", ((MultipleChoiceQuestion) question).getOptions());
-                } else if (question instanceof TrueFalseQuestion) {
-                    options = "True~False";
-                }
-                String correctAnswer = question.getCorrectAnswer();
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
 
-                databaseManager.executeUpdate(
-                        "INSERT INTO questions (quiz_id, question_text, question_type, options, correct_answer) VALUES (?, ?, ?, ?, ?)",
-                        quizId, questionText, questionType, options, correctAnswer);
+    private static List<Question> await(CompletableFuture<List<Question>> pending) throws SQLException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
             }
+            throw e;
+        }
+    }
 
-            JOptionPane.showMessageDialog(this, "Quiz saved successfully.");
-            dispose();
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Queries actually run; lower than misses when concurrent misses were coalesced
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long lookups = h + misses.sum();
+        return lookups == 0 ? 0.0 : (double) h / lookups;
+    }
+
+    public synchronized String getStats() {
+        return String.format(
+                "questions[quizzes=%d, bytes=%d/%d, hits=%d, misses=%d, loads=%d, evictions=%d, hitRatio=%.1f%%]",
+                entries.size(), currentBytes, maxBytes, hits.sum(), misses.sum(), loads.sum(), evictions.sum(),
+                getHitRatio() * 100);
+    }
+}
+
+class DatabaseManager implements AutoCloseable {
+    private static final String URL = "jdbc:postgresql://localhost:5432/quizapp?reWriteBatchedInserts=true";
+    private static final String USER = "postgres";
+    private static final String PASSWORD = "root";
+    private static final long SESSION_TTL_MILLIS = 3600 * 1000;
+    private static final long SESSION_SWEEP_SECONDS = Long.getLong("quizapp.sessions.sweepIntervalSeconds", 300L);
+    private static final int SESSION_SWEEP_CHUNK = Integer.getInteger("quizapp.sessions.sweepChunkSize", 1000);
+    // "postgresql" keeps everything in the database; "memory" uses InMemoryStore, optionally snapshotted to a file
+    private static final boolean MEMORY_STORAGE = "memory"
+            .equalsIgnoreCase(System.getProperty("quizapp.storage", "postgresql"));
+    private static final String SNAPSHOT_FILE = System.getProperty("quizapp.storage.snapshot");
+    private static final long SNAPSHOT_SECONDS = Long.getLong("quizapp.storage.snapshotIntervalSeconds", 60L);
+    // Submissions go to a local journal first and are drained into PostgreSQL in the background
+    private static final boolean JOURNAL_ENABLED = Boolean
+            .parseBoolean(System.getProperty("quizapp.journal.enabled", "true"));
+    private static final String JOURNAL_FILE = System.getProperty("quizapp.journal.file", "submissions.journal");
+    // "database" stores a random token per login in sessions; "stateless" issues signed tokens instead
+    private static final boolean STATELESS_SESSIONS = "stateless"
+            .equalsIgnoreCase(System.getProperty("quizapp.sessions.mode", "database"));
+
+    private ConnectionPool pool;
+    private AsyncDataAccess async;
+    private final SessionCache sessionCache = new SessionCache();
+    private final GradingEngine gradingEngine = new GradingEngine();
+    private final QuestionCache questionCache = new QuestionCache(
+            Long.getLong("quizapp.questionCache.maxBytes", 16L * 1024 * 1024));
+    private final PasswordHashing passwordHasher = PasswordHashing.fromSystemProperties();
+    private final SessionTokenSigner tokenSigner = STATELESS_SESSIONS ? SessionTokenSigner.fromSystemProperties()
+            : null;
+    private QuizRepository quizzes;
+    private UserRepository users;
+    private InMemoryStore memoryStore;
+    private SubmissionJournal journal;
+    private ScheduledExecutorService housekeeper;
+    private final LongAdder edtBlockingCalls = new LongAdder();
+    // Latency per public operation and per statement, published over JMX as quizapp:type=QueryLatency
+    private final QueryMetrics metrics = QueryMetrics.fromSystemProperties();
+    private final SlowQueryLog slowQueries = SlowQueryLog.fromSystemProperties(this);
+
+    public DatabaseManager() {
+        async = new AsyncDataAccess();
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "database-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        if (MEMORY_STORAGE) {
+            openMemoryStore();
+        } else {
+            openDatabase();
+        }
+        housekeeper.scheduleWithFixedDelay(this::sweepExpiredSessions, SESSION_SWEEP_SECONDS,
+                SESSION_SWEEP_SECONDS, TimeUnit.SECONDS);
+        String metricsLog = System.getProperty("quizapp.metrics.logFile");
+        if (metricsLog != null && metrics.isEnabled()) {
+            long interval = Long.getLong("quizapp.metrics.logIntervalSeconds", 60L);
+            housekeeper.scheduleWithFixedDelay(() -> dumpMetrics(Paths.get(metricsLog)), interval,
+                    interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void dumpMetrics(Path file) {
+        try {
+            metrics.dumpTo(file);
+        } catch (IOException e) {
+            System.err.println("Metrics dump failed: " + e.getMessage());
+        }
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void openMemoryStore() {
+        try {
+            memoryStore = new InMemoryStore(SNAPSHOT_FILE == null ? null : Paths.get(SNAPSHOT_FILE));
+        } catch (IOException e) {
+            showErrorDialog(null, "Snapshot Error", "Unable to load snapshot: " + e.getMessage());
+            System.exit(1);
+        }
+        quizzes = memoryStore;
+        users = memoryStore;
+        System.out.println("Using in-memory storage" + (SNAPSHOT_FILE == null ? "." : " with snapshots in " + SNAPSHOT_FILE));
+        if (SNAPSHOT_FILE != null) {
+            housekeeper.scheduleWithFixedDelay(this::snapshot, SNAPSHOT_SECONDS, SNAPSHOT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void openDatabase() {
+        pool = new ConnectionPool(URL, USER, PASSWORD);
+        // Borrow once up front so a bad configuration still fails fast at startup
+        try {
+            pool.borrow().close();
+            System.out.println("Database connected successfully.");
         } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+            pool.close();
+            showErrorDialog(null, "Database Connection Error", "Unable to connect to database");
+            System.exit(1);
+        }
+        if (Boolean.parseBoolean(System.getProperty("quizapp.schema.migrate", "true"))) {
+            try {
+                new SchemaMigrator(this).migrate();
+            } catch (SQLException e) {
+                pool.close();
+                showErrorDialog(null, "Schema Migration Error", e.getMessage());
+                System.exit(1);
+            }
+        }
+        quizzes = new JdbcQuizRepository(this);
+        users = new JdbcUserRepository(this);
+        if (JOURNAL_ENABLED) {
+            try {
+                journal = new SubmissionJournal(Paths.get(JOURNAL_FILE),
+                        Integer.getInteger("quizapp.journal.sizeBytes", 64 * 1024 * 1024),
+                        Boolean.parseBoolean(System.getProperty("quizapp.journal.sync", "true")), quizzes);
+            } catch (IOException e) {
+                // Still usable, just without the buffer against database stalls
+                System.err.println("Submission journal disabled: " + e.getMessage());
+            }
         }
     }
 
-}
+    // Null when submissions are written to the database directly
+    public SubmissionJournal getJournal() {
+        return journal;
+    }
 
-// QuestionCreatorPanel Class
-class QuestionCreatorPanel extends JPanel {
-    private JTextField questionField;
-    private JComboBox<String> questionTypeBox;
-    private JPanel optionsPanel;
-    private JButton addOptionButton;
-    private JButton removeQuestionButton;
-    private List<JTextField> optionFields;
-    private JTextField correctAnswerField;
-    private QuizCreator parent;
+    private void snapshot() {
+        try {
+            long start = System.nanoTime();
+            memoryStore.snapshot();
+            System.out.printf("Snapshot written in %.1f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException e) {
+            System.err.println("Snapshot failed: " + e.getMessage());
+        }
+    }
 
-    public QuestionCreatorPanel(QuizCreator parent, int questionNumber) {
-        this.parent = parent;
-        setLayout(new BorderLayout(5, 5));
-        setBorder(BorderFactory.createTitledBorder("Question " + questionNumber));
+    public QuizRepository quizzes() {
+        return quizzes;
+    }
 
-        // Question Text Panel
-        JPanel questionTextPanel = new JPanel(new BorderLayout());
-        questionTextPanel.add(new JLabel("Question:"), BorderLayout.WEST);
-        questionField = new JTextField(30);
-        questionTextPanel.add(questionField, BorderLayout.CENTER);
+    public UserRepository users() {
+        return users;
+    }
 
-        // Question Type Panel
-        JPanel questionTypePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        questionTypePanel.add(new JLabel("Type:"));
-        questionTypeBox = new JComboBox<>(new String[] { "Short Answer", "True/False", "Multiple Choice" });
-        questionTypePanel.add(questionTypeBox);
+    // Borrow a pooled connection; callers must close it to return it to the pool. Fails in memory storage mode
+    public Connection getConnection() throws SQLException {
+        return borrow();
+    }
 
-        // Correct Answer Panel
-        JPanel correctAnswerPanel = new JPanel(new BorderLayout());
-        correctAnswerPanel.add(new JLabel("Correct Answer:"), BorderLayout.WEST);
-        correctAnswerField = new JTextField(30);
-        correctAnswerPanel.add(correctAnswerField, BorderLayout.CENTER);
+    /*
+     * Every database call goes through here, so calls made on the Event Dispatch Thread are counted (see
+     * getEdtBlockingCalls()) and their wait for a connection is recorded as "edt borrow" in the metrics.
+     */
+    private Connection borrow() throws SQLException {
+        boolean onEdt = SwingUtilities.isEventDispatchThread();
+        if (onEdt) {
+            edtBlockingCalls.increment();
+        }
+        if (pool == null) {
+            throw new SQLException("This feature needs PostgreSQL storage (quizapp.storage=postgresql)");
+        }
+        if (!onEdt) {
+            return pool.borrow();
+        }
+        long start = System.nanoTime();
+        try {
+            return pool.borrow();
+        } finally {
+            metrics.record("edt borrow", start);
+        }
+    }
 
-        // Options Panel
-        optionsPanel = new JPanel();
-        optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS));
-        JScrollPane optionsScrollPane = new JScrollPane(optionsPanel);
-        optionsScrollPane.setPreferredSize(new Dimension(400, 100));
+    public AsyncDataAccess async() {
+        return async;
+    }
 
-        // Buttons Panel
-        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
-        addOptionButton = new JButton("Add Option");
-        removeQuestionButton = new JButton("Remove Question");
-        buttonsPanel.add(addOptionButton);
-        buttonsPanel.add(removeQuestionButton);
+    public long getEdtBlockingCalls() {
+        return edtBlockingCalls.sum();
+    }
 
-        // Add components to main panel
-        JPanel topPanel = new JPanel(new BorderLayout());
-        topPanel.add(questionTextPanel, BorderLayout.NORTH);
-        topPanel.add(questionTypePanel, BorderLayout.CENTER);
-        topPanel.add(correctAnswerPanel, BorderLayout.SOUTH);
+    // Null in memory storage mode
+    public ConnectionPool getPool() {
+        return pool;
+    }
 
-        add(topPanel, BorderLayout.NORTH);
-        add(optionsScrollPane, BorderLayout.CENTER);
-        add(buttonsPanel, BorderLayout.SOUTH);
+    public int executeUpdate(String query, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = borrow();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            setStatementParams(statement, params);
+            return statement.executeUpdate();
+        } finally {
+            statementFinished(query, params, start);
+        }
+    }
+
+    // Run a query and map every row; statement, cursor and connection are always released
+    public <T> List<T> query(String query, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        forEachRow(query, rs -> rows.add(mapper.map(rs)), params);
+        return rows;
+    }
+
+    // Run a query and map the first row, or return null if there is none
+    public <T> T queryForObject(String query, RowMapper<T> mapper, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = borrow();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            setStatementParams(statement, params);
+            statement.setMaxRows(1);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        } finally {
+            statementFinished(query, params, start);
+        }
+    }
+
+    // Run a query and hand each row to the callback as it is read
+    public void forEachRow(String query, RowCallback callback, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = borrow();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            setStatementParams(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    callback.processRow(rs);
+                }
+            }
+        } finally {
+            statementFinished(query, params, start);
+        }
+    }
+
+    public boolean exists(String query, Object... params) throws SQLException {
+        return queryForObject(query, rs -> Boolean.TRUE, params) != null;
+    }
+
+    // Run the callback in one transaction; commits on success and rolls back on any failure
+    public <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = borrow()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = callback.doInTransaction(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } finally {
+            metrics.record("transaction", start);
+        }
+    }
+
+    // Every statement helper reports here once its statement has finished, successfully or not
+    private void statementFinished(String query, Object[] params, long start) {
+        long elapsed = System.nanoTime() - start;
+        String name = metrics.statementName(query);
+        metrics.recordNanos(name, elapsed);
+        slowQueries.check(query, params, elapsed, name);
+    }
+
+    public static void setParams(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+
+    // Results are copied into a disconnected row set so the connection can go straight back to the pool
+    public ResultSet executeQuery(String query, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = borrow();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            setStatementParams(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+                rowSet.populate(rs);
+                return rowSet;
+            }
+        } finally {
+            statementFinished(query, params, start);
+        }
+    }
+
+    private void setStatementParams(PreparedStatement statement, Object... params) throws SQLException {
+        setParams(statement, params);
+    }
+
+    public static void showErrorDialog(Component parent, String title, String message) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println(title + ": " + message);
+            return;
+        }
+        JOptionPane.showMessageDialog(parent, message, title, JOptionPane.ERROR_MESSAGE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+            // A periodic snapshot may still be running; let it finish before the final one
+            try {
+                housekeeper.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (memoryStore != null && SNAPSHOT_FILE != null)
+            snapshot();
+        if (journal != null) {
+            // Whatever is not drained in time stays in the journal for the next start
+            try {
+                journal.awaitDrained(1000 * Long.getLong("quizapp.journal.closeTimeoutSeconds", 10L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            journal.close();
+        }
+        if (async != null)
+            async.close();
+        slowQueries.close();
+        if (pool != null)
+            pool.close();
+        metrics.unregister();
+    }
+
+    // User registration
+    public void registerUser(String name, String username, String password, String role)
+            throws SQLException, UserAlreadyExistsException {
+        long start = System.nanoTime();
+        try {
+            // Check if username already exists before paying for the hash
+            if (users.findByUsername(username) != null) {
+                throw new UserAlreadyExistsException("Username already exists");
+            }
+            // Hash password
+            String hashedPassword = hashPassword(password);
+            if (!users.createUser(name, username, hashedPassword, role)) {
+                throw new UserAlreadyExistsException("Username already exists");
+            }
+        } finally {
+            metrics.record("register", start);
+        }
+    }
+
+    // User login
+    public String loginUser(String username, String password)
+            throws SQLException, UserNotFoundException, InvalidPasswordException {
+        long start = System.nanoTime();
+        try {
+            User account = users.findByUsername(username);
+            if (account != null) {
+                String hashedPassword = account.password;
+                int userId = account.userId;
+                if (verifyPassword(password, hashedPassword)) {
+                    if (passwordHasher.needsRehash(hashedPassword)) {
+                        rehashPassword(userId, password, hashedPassword);
+                    }
+                    // Set expiry time (e.g., 1 hour from now)
+                    Timestamp expiryTime = new Timestamp(System.currentTimeMillis() + SESSION_TTL_MILLIS);
+                    if (tokenSigner != null) {
+                        // Stateless mode: the token itself carries the session, nothing is written
+                        return generateToken(account, expiryTime.getTime());
+                    }
+                    // Generate token
+                    String token = generateToken();
+                    users.createSession(userId, token, expiryTime.getTime());
+                    // password not needed
+                    sessionCache.put(token, new User(userId, account.name, username, "", account.role),
+                            expiryTime.getTime());
+                    return token;
+                } else {
+                    throw new InvalidPasswordException("Invalid password");
+                }
+            } else {
+                throw new UserNotFoundException("User not found");
+            }
+        } finally {
+            metrics.record("login", start);
+        }
+    }
+
+    // Validate session
+    public User validateSession(String token) throws SQLException, SessionExpiredException {
+        long start = System.nanoTime();
+        try {
+            if (SessionTokenSigner.isSignedToken(token)) {
+                return tokenSigner != null ? tokenSigner.verify(token) : null;
+            }
+            User cached = sessionCache.get(token);
+            if (cached != null) {
+                return cached;
+            }
+
+            Session session = users.findSession(token);
+            if (session == null) {
+                return null; // Invalid token
+            }
+            if (session.expiresAt > System.currentTimeMillis()) {
+                sessionCache.put(token, session.user, session.expiresAt);
+                return session.user;
+            } else {
+                throw new SessionExpiredException("Session expired");
+            }
+        } finally {
+            metrics.record("validateSession", start);
+        }
+    }
+
+    // Every question of a quiz, served from the question cache when possible; the list is immutable
+    public List<Question> loadQuestions(int quizId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return questionCache.get(quizId, quizzes::findQuestions);
+        } finally {
+            metrics.record("loadQuestions", start);
+        }
+    }
+
+    // True if the student's submission is stored or still waiting in the journal
+    public boolean hasSubmitted(int userId, int quizId) throws SQLException {
+        return (journal != null && journal.isPending(userId, quizId)) || quizzes.hasSubmitted(userId, quizId);
+    }
+
+    // Drop everything cached for a quiz; call after its questions change or it is deleted
+    public void invalidateQuiz(int quizId) {
+        questionCache.invalidate(quizId);
+        gradingEngine.invalidate(quizId);
+    }
+
+    public QuestionCache getQuestionCache() {
+        return questionCache;
+    }
+
+    /*
+     * Grade and store a whole submission atomically. With the journal on, the submission is durable once appended
+     * and reaches the database shortly after, and nothing on the way waits for the database: a second submission
+     * is refused while the first is still in this process's journal, and one that reaches the database after
+     * another is set aside by the drainer (see SubmissionJournal). Without the journal the database refuses it.
+     */
+    public double submitAnswers(int userId, int quizId, List<Question> questions, List<String> answers)
+            throws SQLException, QuizAlreadySubmittedException {
+        long start = System.nanoTime();
+        try {
+            double[] scores = new double[questions.size()];
+            // The key comes from the current questions, as the caller's copy may predate a corrected answer; with the
+            // journal on, a question cache miss grades against the caller's copy rather than wait for the database
+            List<Question> current = journal != null ? questionCache.getIfPresent(quizId) : loadQuestions(quizId);
+            AnswerKey key = current != null ? gradingEngine.keyFor(quizId, current) : new AnswerKey(quizId, questions);
+            if (!key.hasQuestionIds(questions)) {
+                throw new SQLException("The quiz has changed since it was opened; reload it and submit again");
+            }
+            // One answer per question: a short list is padded with unanswered (null) entries, extras are ignored
+            String[] answered = Arrays.copyOf(answers.toArray(new String[0]), scores.length);
+            double finalScore = key.grade(answered, scores);
+
+            if (journal != null) {
+                int[] questionIds = new int[scores.length];
+                for (int i = 0; i < questionIds.length; i++) {
+                    questionIds[i] = questions.get(i).getQuestionId();
+                }
+                PendingSubmission submission = new PendingSubmission(userId, quizId, finalScore, questionIds, answered,
+                        scores);
+                // Acknowledged once it is in the journal; a full journal falls back to a direct write
+                if (journal.append(submission)) {
+                    return finalScore;
+                }
+            }
+            boolean inserted = quizzes.saveSubmission(userId, quizId, questions, Arrays.asList(answered), scores,
+                    finalScore);
+            if (!inserted) {
+                throw new QuizAlreadySubmittedException("You have already attended this quiz.");
+            }
+            return finalScore;
+        } finally {
+            metrics.record("submit", start);
+        }
+    }
+
+    // Save a quiz and all its questions atomically; returns the new quiz id
+    public int saveQuiz(String title, List<Question> questions) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return quizzes.createQuiz(title, questions);
+        } finally {
+            metrics.record("saveQuiz", start);
+        }
+    }
+
+    // Options are stored in order as a text[]; short answers have none
+    public static String[] encodeOptions(Question question) {
+        if (question instanceof MultipleChoiceQuestion) {
+            return ((MultipleChoiceQuestion) question).getOptions().toArray(new String[0]);
+        } else if (question instanceof TrueFalseQuestion) {
+            return new String[] { "True", "False" };
+        }
+        return null;
+    }
+
+    public static List<String> decodeOptions(String[] stored) {
+        return List.of(stored);
+    }
+
+    // The text form of a text[] ({"a","b"}), for COPY; null stays null
+    public static String arrayLiteral(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"');
+            for (int c = 0; c < values[i].length(); c++) {
+                char ch = values[i].charAt(c);
+                if (ch == '"' || ch == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(ch);
+            }
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    // Logout user
+    public void logoutUser(String token) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (SessionTokenSigner.isSignedToken(token)) {
+                if (tokenSigner != null) {
+                    tokenSigner.revoke(token);
+                }
+                return;
+            }
+            sessionCache.invalidate(token);
+            users.deleteSession(token);
+        } finally {
+            metrics.record("logout", start);
+        }
+    }
+
+    // Delete expired sessions in bounded chunks so the sweep never holds long locks; returns rows deleted
+    public int sweepExpiredSessions() {
+        long start = System.nanoTime();
+        try {
+            sessionCache.evictExpired();
+            if (tokenSigner != null) {
+                tokenSigner.pruneRevocations();
+            }
+            int total = 0;
+            try {
+                long now = System.currentTimeMillis();
+                int deleted;
+                do {
+                    deleted = users.deleteExpiredSessions(now, SESSION_SWEEP_CHUNK);
+                    total += deleted;
+                } while (deleted == SESSION_SWEEP_CHUNK);
+            } catch (SQLException e) {
+                System.err.println("Session sweep failed: " + e.getMessage());
+            }
+            return total;
+        } finally {
+            metrics.record("sweepSessions", start);
+        }
+    }
+
+    // Fix a question's correct answer; returns its quiz id, or -1 if the question does not exist
+    public int updateCorrectAnswer(int questionId, String correctAnswer) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int quizId = quizzes.updateCorrectAnswer(questionId, correctAnswer);
+            if (quizId != -1) {
+                invalidateQuiz(quizId);
+            }
+            return quizId;
+        } finally {
+            metrics.record("updateCorrectAnswer", start);
+        }
+    }
+
+    // Delete a quiz with its questions and submissions; returns false if it did not exist
+    public boolean deleteQuiz(int quizId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int deleted = quizzes.deleteQuiz(quizId);
+            invalidateQuiz(quizId);
+            return deleted > 0;
+        } finally {
+            metrics.record("deleteQuiz", start);
+        }
+    }
+
+    public GradingEngine getGradingEngine() {
+        return gradingEngine;
+    }
+
+    public SessionCache getSessionCache() {
+        return sessionCache;
+    }
+
+    // Hash password with the current algorithm (salted PBKDF2); the result names its algorithm and work factor
+    String hashPassword(String password) {
+        return passwordHasher.hash(password);
+    }
+
+    private boolean verifyPassword(String password, String hashedPassword) {
+        return passwordHasher.verify(password, hashedPassword);
+    }
+
+    /*
+     * Replace a legacy or under-strength hash now that the plain password is known. The old hash is part of the
+     * condition so a concurrent password change is never overwritten; a failure only delays the upgrade.
+     */
+    private void rehashPassword(int userId, String password, String oldHash) {
+        try {
+            users.updatePassword(userId, oldHash, hashPassword(password));
+        } catch (SQLException e) {
+            System.err.println("Password rehash failed for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    // Generate token
+    private String generateToken() {
+        return java.util.UUID.randomUUID().toString();
+    }
+
+    // Generate a signed, self-contained token (stateless mode)
+    private String generateToken(User user, long expiresAt) {
+        return tokenSigner.issue(user, expiresAt);
+    }
+}
+
+// Quiz Class (a quiz as listed, without its questions)
+class Quiz {
+    public final int quizId;
+    public final String title;
+
+    public Quiz(int quizId, String title) {
+        this.quizId = quizId;
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return quizId + ": " + title;
+    }
+}
+
+// Submission Class (one student's graded attempt at a quiz)
+class Submission {
+    public final int userId;
+    public final String name;
+    public final double totalScore;
+
+    public Submission(int userId, String name, double totalScore) {
+        this.userId = userId;
+        this.name = name;
+        this.totalScore = totalScore;
+    }
+}
+
+// GradedAnswer Class (one stored answer with the question it answered)
+class GradedAnswer {
+    public final String questionText;
+    public final String answer;
+    public final double score;
+
+    public GradedAnswer(String questionText, String answer, double score) {
+        this.questionText = questionText;
+        this.answer = answer;
+        this.score = score;
+    }
+}
+
+// PendingSubmission Class (a graded submission not yet stored, as written to the SubmissionJournal)
+class PendingSubmission {
+    public final int userId;
+    public final int quizId;
+    public final double totalScore;
+    public final int[] questionIds;
+    public final String[] answers;
+    public final double[] scores;
+
+    public PendingSubmission(int userId, int quizId, double totalScore, int[] questionIds, String[] answers,
+            double[] scores) {
+        this.userId = userId;
+        this.quizId = quizId;
+        this.totalScore = totalScore;
+        this.questionIds = questionIds;
+        this.answers = answers;
+        this.scores = scores;
+    }
+}
+
+// Session Class (a database-backed login; the user carries no password)
+class Session {
+    public final User user;
+    public final long expiresAt;
+
+    public Session(User user, long expiresAt) {
+        this.user = user;
+        this.expiresAt = expiresAt;
+    }
+}
+
+// UserRepository Interface (accounts and stored sessions; hashing and session policy stay in DatabaseManager)
+interface UserRepository {
+    // The account including its stored password hash, or null
+    User findByUsername(String username) throws SQLException;
+
+    // False if the username is already taken
+    boolean createUser(String name, String username, String passwordHash, String role) throws SQLException;
+
+    // Replaces the hash only while it is still oldHash, so a concurrent password change wins
+    void updatePassword(int userId, String oldHash, String newHash) throws SQLException;
+
+    void createSession(int userId, String token, long expiresAt) throws SQLException;
+
+    // Null if the token is unknown; expired sessions are returned until they are swept
+    Session findSession(String token) throws SQLException;
+
+    void deleteSession(String token) throws SQLException;
+
+    // Delete at most limit sessions that expired before now; returns how many were deleted
+    int deleteExpiredSessions(long now, int limit) throws SQLException;
+}
+
+// QuizRepository Interface (quizzes, questions and submissions; grading and caching stay in DatabaseManager)
+interface QuizRepository {
+    // Every quiz, by id
+    List<Quiz> listQuizzes() throws SQLException;
+
+    // Rows of (quiz id, title) for PagedTableModel
+    PageSource quizPage();
+
+    // Stores the quiz and its questions together; returns the new quiz id
+    int createQuiz(String title, List<Question> questions) throws SQLException;
+
+    // A quiz's questions in the order they were created
+    List<Question> findQuestions(int quizId) throws SQLException;
+
+    // Returns the question's quiz id, or -1 if the question does not exist
+    int updateCorrectAnswer(int questionId, String correctAnswer) throws SQLException;
+
+    // Deletes the quiz with its questions and submissions; returns the number of quizzes deleted
+    int deleteQuiz(int quizId) throws SQLException;
+
+    boolean hasSubmitted(int userId, int quizId) throws SQLException;
+
+    // Stores a graded submission atomically; false if the student has already submitted this quiz. Questions without
+    // an answer (a short answers list) are stored unanswered
+    boolean saveSubmission(int userId, int quizId, List<Question> questions, List<String> answers, double[] scores,
+            double totalScore) throws SQLException;
+
+    // Stores a batch atomically, skipping submissions that are already stored; returns the skipped ones
+    List<PendingSubmission> saveSubmissions(List<PendingSubmission> submissions) throws SQLException;
+
+    // Every submission for a quiz, by student name
+    List<Submission> listSubmissions(int quizId) throws SQLException;
+
+    List<GradedAnswer> listAnswers(int quizId, int userId) throws SQLException;
+
+    // Rows of (question text, answer, score) for PagedTableModel
+    PageSource answerPage(int quizId, int userId);
+
+    // Removes a student's submission so the quiz can be taken again; returns the number removed
+    int deleteSubmission(int quizId, int userId) throws SQLException;
+}
+
+// JdbcUserRepository Class (UserRepository on PostgreSQL)
+class JdbcUserRepository implements UserRepository {
+    static final String SESSION_BY_TOKEN = "SELECT s.user_id, s.expiry_time, u.name, u.username, u.role FROM sessions s JOIN users u ON s.user_id = u.user_id WHERE s.token = ?";
+    static final String EXPIRED_SESSIONS = "SELECT session_id FROM sessions WHERE expiry_time < ? LIMIT ?";
+
+    private final DatabaseManager databaseManager;
+
+    public JdbcUserRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public User findByUsername(String username) throws SQLException {
+        return databaseManager.queryForObject("SELECT user_id, name, password, role FROM users WHERE username = ?",
+                rs -> new User(rs.getInt("user_id"), rs.getString("name"), username, rs.getString("password"),
+                        rs.getString("role")),
+                username);
+    }
+
+    @Override
+    public boolean createUser(String name, String username, String passwordHash, String role) throws SQLException {
+        return databaseManager.executeUpdate(
+                "INSERT INTO users (name, username, password, role) VALUES (?, ?, ?, ?) ON CONFLICT (username) DO NOTHING",
+                name, username, passwordHash, role) == 1;
+    }
+
+    @Override
+    public void updatePassword(int userId, String oldHash, String newHash) throws SQLException {
+        databaseManager.executeUpdate("UPDATE users SET password = ? WHERE user_id = ? AND password = ?", newHash,
+                userId, oldHash);
+    }
+
+    @Override
+    public void createSession(int userId, String token, long expiresAt) throws SQLException {
+        databaseManager.executeUpdate("INSERT INTO sessions (user_id, token, expiry_time) VALUES (?, ?, ?)", userId,
+                token, new Timestamp(expiresAt));
+    }
+
+    @Override
+    public Session findSession(String token) throws SQLException {
+        return databaseManager.queryForObject(SESSION_BY_TOKEN,
+                rs -> new Session(new User(rs.getInt("user_id"), rs.getString("name"), rs.getString("username"), "",
+                        rs.getString("role")), rs.getTimestamp("expiry_time").getTime()),
+                token);
+    }
+
+    @Override
+    public void deleteSession(String token) throws SQLException {
+        databaseManager.executeUpdate("DELETE FROM sessions WHERE token = ?", token);
+    }
+
+    @Override
+    public int deleteExpiredSessions(long now, int limit) throws SQLException {
+        return databaseManager.executeUpdate("DELETE FROM sessions WHERE session_id IN (" + EXPIRED_SESSIONS + ")",
+                new Timestamp(now), limit);
+    }
+}
+
+// JdbcQuizRepository Class (QuizRepository on PostgreSQL)
+class JdbcQuizRepository implements QuizRepository {
+    static final String QUESTIONS_BY_QUIZ = "SELECT question_id, question_text, question_type, options, correct_answer FROM questions WHERE quiz_id = ? ORDER BY question_id";
+
+    private final DatabaseManager databaseManager;
+
+    public JdbcQuizRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public List<Quiz> listQuizzes() throws SQLException {
+        return databaseManager.query("SELECT quiz_id, title FROM quizzes ORDER BY quiz_id",
+                rs -> new Quiz(rs.getInt("quiz_id"), rs.getString("title")));
+    }
+
+    // Exact count for small tables, planner estimate once counting would mean a long scan
+    @Override
+    public PageSource quizPage() {
+        return new KeysetPageSource(databaseManager, "quiz_id, title", "quizzes", null, "quiz_id").withCountQuery(
+                "SELECT CASE WHEN reltuples < 100000 THEN (SELECT count(*) FROM quizzes) ELSE reltuples::bigint END FROM pg_class WHERE oid = 'quizzes'::regclass");
+    }
+
+    @Override
+    public int createQuiz(String title, List<Question> questions) throws SQLException {
+        return databaseManager.inTransaction(connection -> {
+            int id;
+            try (PreparedStatement quiz = connection
+                    .prepareStatement("INSERT INTO quizzes (title) VALUES (?) RETURNING quiz_id")) {
+                DatabaseManager.setParams(quiz, title);
+                try (ResultSet rs = quiz.executeQuery()) {
+                    rs.next();
+                    id = rs.getInt("quiz_id");
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO questions (quiz_id, question_text, question_type, options, correct_answer) VALUES (?, ?, ?, ?, ?)")) {
+                for (Question question : questions) {
+                    DatabaseManager.setParams(insert, id, question.getQuestionText(), question.getQuestionType(),
+                            DatabaseManager.encodeOptions(question), question.getCorrectAnswer());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            return id;
+        });
+    }
+
+    @Override
+    public List<Question> findQuestions(int quizId) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        databaseManager.forEachRow(QUESTIONS_BY_QUIZ, rs -> {
+            java.sql.Array storedOptions = rs.getArray("options");
+            List<String> options = storedOptions == null ? null
+                    : DatabaseManager.decodeOptions((String[]) storedOptions.getArray());
+            Question question = Question.create(rs.getInt("question_id"), quizId, rs.getString("question_type"),
+                    rs.getString("question_text"), options, rs.getString("correct_answer"));
+            if (question != null) {
+                questions.add(question);
+            }
+        }, quizId);
+        return questions;
+    }
+
+    @Override
+    public int updateCorrectAnswer(int questionId, String correctAnswer) throws SQLException {
+        Integer quizId = databaseManager.queryForObject(
+                "UPDATE questions SET correct_answer = ? WHERE question_id = ? RETURNING quiz_id",
+                rs -> rs.getInt("quiz_id"), correctAnswer, questionId);
+        return quizId == null ? -1 : quizId;
+    }
+
+    @Override
+    public int deleteQuiz(int quizId) throws SQLException {
+        return databaseManager.inTransaction(connection -> {
+            try (PreparedStatement responses = connection.prepareStatement("DELETE FROM responses WHERE quiz_id = ?");
+                    PreparedStatement questions = connection.prepareStatement("DELETE FROM questions WHERE quiz_id = ?");
+                    PreparedStatement quiz = connection.prepareStatement("DELETE FROM quizzes WHERE quiz_id = ?")) {
+                // student_answers go with their questions (ON DELETE CASCADE)
+                DatabaseManager.setParams(responses, quizId);
+                responses.executeUpdate();
+                DatabaseManager.setParams(questions, quizId);
+                questions.executeUpdate();
+                DatabaseManager.setParams(quiz, quizId);
+                return quiz.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public boolean hasSubmitted(int userId, int quizId) throws SQLException {
+        return databaseManager.exists("SELECT 1 FROM responses WHERE user_id = ? AND quiz_id = ?", userId, quizId);
+    }
+
+    // One upsert, one batch, one commit; the unique (user_id, quiz_id) key doubles as the duplicate-submit check
+    @Override
+    public boolean saveSubmission(int userId, int quizId, List<Question> questions, List<String> answers,
+            double[] scores, double totalScore) throws SQLException {
+        return databaseManager.inTransaction(connection -> {
+            try (PreparedStatement response = connection.prepareStatement(
+                    "INSERT INTO responses (user_id, quiz_id, total_score) VALUES (?, ?, ?) ON CONFLICT (user_id, quiz_id) DO NOTHING")) {
+                DatabaseManager.setParams(response, userId, quizId, totalScore);
+                if (response.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            try (PreparedStatement answer = connection.prepareStatement(
+                    "INSERT INTO student_answers (user_id, quiz_id, question_id, student_answer, score) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < scores.length; i++) {
+                    DatabaseManager.setParams(answer, userId, quizId, questions.get(i).getQuestionId(),
+                            i < answers.size() ? answers.get(i) : null, scores[i]);
+                    answer.addBatch();
+                }
+                answer.executeBatch();
+            }
+            return true;
+        });
+    }
+
+    // One unnest() insert for the responses, one batch for the answers of those that were new
+    @Override
+    public List<PendingSubmission> saveSubmissions(List<PendingSubmission> submissions) throws SQLException {
+        Integer[] userIds = new Integer[submissions.size()];
+        Integer[] quizIds = new Integer[submissions.size()];
+        Double[] totals = new Double[submissions.size()];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = submissions.get(i).userId;
+            quizIds[i] = submissions.get(i).quizId;
+            totals[i] = submissions.get(i).totalScore;
+        }
+        return databaseManager.inTransaction(connection -> {
+            Set<Long> inserted = new HashSet<>();
+            try (PreparedStatement responses = connection.prepareStatement(
+                    "INSERT INTO responses (user_id, quiz_id, total_score) SELECT * FROM unnest(?::int[], ?::int[], ?::float8[]) "
+                            + "ON CONFLICT (user_id, quiz_id) DO NOTHING RETURNING user_id, quiz_id")) {
+                responses.setArray(1, connection.createArrayOf("int4", userIds));
+                responses.setArray(2, connection.createArrayOf("int4", quizIds));
+                responses.setArray(3, connection.createArrayOf("float8", totals));
+                try (ResultSet rs = responses.executeQuery()) {
+                    while (rs.next()) {
+                        inserted.add((long) rs.getInt("quiz_id") << 32 | rs.getInt("user_id"));
+                    }
+                }
+            }
+            List<PendingSubmission> skipped = new ArrayList<>();
+            try (PreparedStatement answer = connection.prepareStatement(
+                    "INSERT INTO student_answers (user_id, quiz_id, question_id, student_answer, score) VALUES (?, ?, ?, ?, ?)")) {
+                for (PendingSubmission submission : submissions) {
+                    // remove() so a submission repeated within the batch only gets its answers once
+                    if (!inserted.remove((long) submission.quizId << 32 | submission.userId)) {
+                        skipped.add(submission);
+                        continue;
+                    }
+                    for (int i = 0; i < submission.questionIds.length; i++) {
+                        DatabaseManager.setParams(answer, submission.userId, submission.quizId,
+                                submission.questionIds[i], submission.answers[i], submission.scores[i]);
+                        answer.addBatch();
+                    }
+                }
+                answer.executeBatch();
+            }
+            return skipped;
+        });
+    }
+
+    @Override
+    public List<Submission> listSubmissions(int quizId) throws SQLException {
+        return databaseManager.query(
+                "SELECT r.user_id, u.name, r.total_score FROM responses r JOIN users u ON r.user_id = u.user_id WHERE r.quiz_id = ? ORDER BY u.name",
+                rs -> new Submission(rs.getInt("user_id"), rs.getString("name"), rs.getDouble("total_score")),
+                quizId);
+    }
+
+    @Override
+    public List<GradedAnswer> listAnswers(int quizId, int userId) throws SQLException {
+        return databaseManager.query(
+                "SELECT q.question_text, sa.student_answer, sa.score FROM student_answers sa JOIN questions q ON sa.question_id = q.question_id WHERE sa.quiz_id = ? AND sa.user_id = ? ORDER BY sa.answer_id",
+                rs -> new GradedAnswer(rs.getString("question_text"), rs.getString("student_answer"),
+                        rs.getDouble("score")),
+                quizId, userId);
+    }
+
+    @Override
+    public PageSource answerPage(int quizId, int userId) {
+        return answerPage(databaseManager, quizId, userId);
+    }
+
+    // Shared with the plan check in SchemaMigrator
+    static KeysetPageSource answerPage(DatabaseManager databaseManager, int quizId, int userId) {
+        return new KeysetPageSource(databaseManager, "q.question_text, sa.student_answer, sa.score",
+                "student_answers sa JOIN questions q ON sa.question_id = q.question_id",
+                "sa.quiz_id = ? AND sa.user_id = ?", "sa.answer_id", quizId, userId)
+                .withCountQuery("SELECT count(*) FROM student_answers WHERE quiz_id = ? AND user_id = ?", quizId,
+                        userId);
+    }
+
+    @Override
+    public int deleteSubmission(int quizId, int userId) throws SQLException {
+        return databaseManager.inTransaction(connection -> {
+            try (PreparedStatement answers = connection
+                    .prepareStatement("DELETE FROM student_answers WHERE quiz_id = ? AND user_id = ?");
+                    PreparedStatement response = connection
+                            .prepareStatement("DELETE FROM responses WHERE quiz_id = ? AND user_id = ?")) {
+                DatabaseManager.setParams(answers, quizId, userId);
+                answers.executeUpdate();
+                DatabaseManager.setParams(response, quizId, userId);
+                return response.executeUpdate();
+            }
+        });
+    }
+}
+
+// LongMap Class (open-addressing hash map with primitive long keys; not thread-safe, key 0 is reserved)
+class LongMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongMap() {
+        this(16);
+    }
+
+    public LongMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask);; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            if (keys[i] == 0) {
+                return null;
+            }
+        }
+    }
+
+    // Returns the previous value, or null
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    // Backward-shift deletion keeps every probe chain intact without tombstones
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; keys[i] != key; i = (i + 1) & mask) {
+            if (keys[i] == 0) {
+                return null;
+            }
+        }
+        V previous = (V) values[i];
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = null;
+        size--;
+        return previous;
+    }
+
+    // Values in no particular order
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = slot(oldKeys[i], mask);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
+
+// InMemoryStore Class (quizzes, users and sessions held in memory, with optional snapshots to disk)
+class InMemoryStore implements QuizRepository, UserRepository {
+    private static final int SNAPSHOT_MAGIC = 0x515a5331; // "QZS1"
+
+    private static class UserRow {
+        final int userId;
+        final String name;
+        final String username;
+        String password;
+        final String role;
+
+        UserRow(int userId, String name, String username, String password, String role) {
+            this.userId = userId;
+            this.name = name;
+            this.username = username;
+            this.password = password;
+            this.role = role;
+        }
+    }
+
+    private static class QuizRow {
+        final int quizId;
+        final String title;
+        final List<Question> questions = new ArrayList<>();
+
+        QuizRow(int quizId, String title) {
+            this.quizId = quizId;
+            this.title = title;
+        }
+    }
+
+    private static class SubmissionRow {
+        final int userId;
+        final int quizId;
+        final double totalScore;
+        final long firstAnswerId;
+        final int[] questionIds;
+        final String[] answers;
+        final double[] scores;
+
+        SubmissionRow(int userId, int quizId, double totalScore, long firstAnswerId, int[] questionIds,
+                String[] answers, double[] scores) {
+            this.userId = userId;
+            this.quizId = quizId;
+            this.totalScore = totalScore;
+            this.firstAnswerId = firstAnswerId;
+            this.questionIds = questionIds;
+            this.answers = answers;
+            this.scores = scores;
+        }
+    }
+
+    // Many concurrent readers, one writer at a time; every operation is a few map lookups under the lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongMap<UserRow> usersById = new LongMap<>();
+    private final HashMap<String, UserRow> usersByName = new HashMap<>();
+    private final HashMap<String, Session> sessions = new HashMap<>();
+    private final LongMap<QuizRow> quizzes = new LongMap<>();
+    private final LongMap<Question> questions = new LongMap<>();
+    // Keyed by quizId << 32 | userId
+    private final LongMap<SubmissionRow> submissions = new LongMap<>();
+    private int lastUserId;
+    private int lastQuizId;
+    private int lastQuestionId;
+    private long lastAnswerId;
+    private final Path snapshotFile;
+    private final Object snapshotLock = new Object();
+
+    // snapshotFile may be null for a purely in-memory store; an existing snapshot is loaded immediately
+    public InMemoryStore(Path snapshotFile) throws IOException {
+        this.snapshotFile = snapshotFile;
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            load(snapshotFile);
+        }
+    }
+
+    private static long submissionKey(int quizId, int userId) {
+        return (long) quizId << 32 | (userId & 0xffffffffL);
+    }
+
+    // ---- UserRepository
+
+    @Override
+    public User findByUsername(String username) {
+        lock.readLock().lock();
+        try {
+            UserRow row = usersByName.get(username);
+            return row == null ? null : new User(row.userId, row.name, row.username, row.password, row.role);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean createUser(String name, String username, String passwordHash, String role) {
+        lock.writeLock().lock();
+        try {
+            if (usersByName.containsKey(username)) {
+                return false;
+            }
+            UserRow row = new UserRow(++lastUserId, name, username, passwordHash, role);
+            usersById.put(row.userId, row);
+            usersByName.put(username, row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updatePassword(int userId, String oldHash, String newHash) {
+        lock.writeLock().lock();
+        try {
+            UserRow row = usersById.get(userId);
+            if (row != null && row.password.equals(oldHash)) {
+                row.password = newHash;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void createSession(int userId, String token, long expiresAt) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            UserRow row = usersById.get(userId);
+            if (row == null) {
+                throw new SQLException("No user " + userId);
+            }
+            sessions.put(token, new Session(new User(row.userId, row.name, row.username, "", row.role), expiresAt));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Session findSession(String token) {
+        lock.readLock().lock();
+        try {
+            return sessions.get(token);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteSession(String token) {
+        lock.writeLock().lock();
+        try {
+            sessions.remove(token);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteExpiredSessions(long now, int limit) {
+        lock.writeLock().lock();
+        try {
+            int deleted = 0;
+            Iterator<Session> it = sessions.values().iterator();
+            while (it.hasNext() && deleted < limit) {
+                if (it.next().expiresAt < now) {
+                    it.remove();
+                    deleted++;
+                }
+            }
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- QuizRepository
+
+    @Override
+    public List<Quiz> listQuizzes() {
+        lock.readLock().lock();
+        try {
+            List<Quiz> result = new ArrayList<>(quizzes.size());
+            for (QuizRow row : quizzes.values()) {
+                result.add(new Quiz(row.quizId, row.title));
+            }
+            result.sort(Comparator.comparingInt(quiz -> quiz.quizId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public PageSource quizPage() {
+        return new ListPageSource(() -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Quiz quiz : listQuizzes()) {
+                rows.add(new Object[] { quiz.quizId, quiz.title, (long) quiz.quizId });
+            }
+            return rows;
+        });
+    }
+
+    @Override
+    public int createQuiz(String title, List<Question> newQuestions) {
+        lock.writeLock().lock();
+        try {
+            QuizRow row = new QuizRow(++lastQuizId, title);
+            for (Question question : newQuestions) {
+                Question stored = copy(question, ++lastQuestionId, row.quizId, question.getCorrectAnswer());
+                row.questions.add(stored);
+                questions.put(stored.getQuestionId(), stored);
+            }
+            quizzes.put(row.quizId, row);
+            return row.quizId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Question copy(Question question, int questionId, int quizId, String correctAnswer) {
+        List<String> options = question instanceof MultipleChoiceQuestion
+                ? List.copyOf(((MultipleChoiceQuestion) question).getOptions())
+                : null;
+        return Question.create(questionId, quizId, question.getQuestionType(), question.getQuestionText(), options,
+                correctAnswer);
+    }
+
+    @Override
+    public List<Question> findQuestions(int quizId) {
+        lock.readLock().lock();
+        try {
+            QuizRow row = quizzes.get(quizId);
+            return row == null ? new ArrayList<>() : new ArrayList<>(row.questions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Questions are shared with readers, so a changed answer replaces the question rather than mutating it
+    @Override
+    public int updateCorrectAnswer(int questionId, String correctAnswer) {
+        lock.writeLock().lock();
+        try {
+            Question question = questions.get(questionId);
+            if (question == null) {
+                return -1;
+            }
+            Question updated = copy(question, questionId, question.getQuizId(), correctAnswer);
+            questions.put(questionId, updated);
+            List<Question> siblings = quizzes.get(question.getQuizId()).questions;
+            siblings.set(siblings.indexOf(question), updated);
+            return question.getQuizId();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteQuiz(int quizId) {
+        lock.writeLock().lock();
+        try {
+            QuizRow row = quizzes.remove(quizId);
+            if (row == null) {
+                return 0;
+            }
+            for (Question question : row.questions) {
+                questions.remove(question.getQuestionId());
+            }
+            for (SubmissionRow submission : submissions.values()) {
+                if (submission.quizId == quizId) {
+                    submissions.remove(submissionKey(quizId, submission.userId));
+                }
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean hasSubmitted(int userId, int quizId) {
+        lock.readLock().lock();
+        try {
+            return submissions.get(submissionKey(quizId, userId)) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean saveSubmission(int userId, int quizId, List<Question> graded, List<String> answers,
+            double[] scores, double totalScore) throws SQLException {
+        int[] questionIds = new int[scores.length];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = graded.get(i).getQuestionId();
+        }
+        // Missing answers are stored as unanswered, like a NULL student_answer
+        String[] answerArray = Arrays.copyOf(answers.toArray(new String[0]), scores.length);
+        lock.writeLock().lock();
+        try {
+            return insertSubmission(userId, quizId, totalScore, questionIds, answerArray, scores.clone());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PendingSubmission> saveSubmissions(List<PendingSubmission> batch) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            // Validate first so a bad submission leaves the whole batch unstored, as a rolled-back transaction would
+            for (PendingSubmission submission : batch) {
+                checkReferences(submission.userId, submission.quizId);
+            }
+            List<PendingSubmission> skipped = new ArrayList<>();
+            for (PendingSubmission submission : batch) {
+                if (!insertSubmission(submission.userId, submission.quizId, submission.totalScore,
+                        submission.questionIds, submission.answers, submission.scores)) {
+                    skipped.add(submission);
+                }
+            }
+            return skipped;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private boolean insertSubmission(int userId, int quizId, double totalScore, int[] questionIds, String[] answers,
+            double[] scores) throws SQLException {
+        checkReferences(userId, quizId);
+        long key = submissionKey(quizId, userId);
+        if (submissions.get(key) != null) {
+            return false;
+        }
+        submissions.put(key, new SubmissionRow(userId, quizId, totalScore, lastAnswerId + 1, questionIds, answers,
+                scores));
+        lastAnswerId += scores.length;
+        return true;
+    }
+
+    // The same SQLState PostgreSQL reports for a foreign key violation
+    private void checkReferences(int userId, int quizId) throws SQLException {
+        if (quizzes.get(quizId) == null || usersById.get(userId) == null) {
+            throw new SQLException("No quiz " + quizId + " or user " + userId, "23503");
+        }
+    }
+
+    @Override
+    public List<Submission> listSubmissions(int quizId) {
+        lock.readLock().lock();
+        try {
+            List<Submission> result = new ArrayList<>();
+            for (SubmissionRow row : submissions.values()) {
+                if (row.quizId == quizId) {
+                    result.add(new Submission(row.userId, usersById.get(row.userId).name, row.totalScore));
+                }
+            }
+            result.sort(Comparator.comparing(submission -> submission.name));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<GradedAnswer> listAnswers(int quizId, int userId) {
+        List<GradedAnswer> result = new ArrayList<>();
+        for (Object[] row : answerRows(quizId, userId)) {
+            result.add(new GradedAnswer((String) row[0], (String) row[1], (Double) row[2]));
+        }
+        return result;
+    }
+
+    @Override
+    public PageSource answerPage(int quizId, int userId) {
+        return new ListPageSource(() -> answerRows(quizId, userId));
+    }
+
+    private List<Object[]> answerRows(int quizId, int userId) {
+        lock.readLock().lock();
+        try {
+            SubmissionRow row = submissions.get(submissionKey(quizId, userId));
+            if (row == null) {
+                return new ArrayList<>();
+            }
+            List<Object[]> rows = new ArrayList<>(row.answers.length);
+            for (int i = 0; i < row.answers.length; i++) {
+                Question question = questions.get(row.questionIds[i]);
+                if (question != null) {
+                    rows.add(new Object[] { question.getQuestionText(), row.answers[i], row.scores[i],
+                            row.firstAnswerId + i });
+                }
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteSubmission(int quizId, int userId) {
+        lock.writeLock().lock();
+        try {
+            return submissions.remove(submissionKey(quizId, userId)) == null ? 0 : 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- Snapshots
+
+    /*
+     * Write everything to the snapshot file. Writers wait while it is serialised; the file is written beside the
+     * target, forced to disk and only then moved into place, so a crash mid-write leaves the previous snapshot
+     * intact. Snapshots are serialised among themselves because they share the temporary file.
+     */
+    public void snapshot() throws IOException {
+        if (snapshotFile == null) {
+            return;
+        }
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        synchronized (snapshotLock) {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                lock.readLock().lock();
+                try {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    out.writeInt(lastUserId);
+                    out.writeInt(lastQuizId);
+                    out.writeInt(lastQuestionId);
+                    out.writeLong(lastAnswerId);
+
+                    out.writeInt(usersById.size());
+                    for (UserRow row : usersById.values()) {
+                        out.writeInt(row.userId);
+                        writeString(out, row.name);
+                        writeString(out, row.username);
+                        writeString(out, row.password);
+                        writeString(out, row.role);
+                    }
+                    out.writeInt(sessions.size());
+                    for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+                        writeString(out, entry.getKey());
+                        out.writeInt(entry.getValue().user.userId);
+                        out.writeLong(entry.getValue().expiresAt);
+                    }
+                    out.writeInt(quizzes.size());
+                    for (QuizRow row : quizzes.values()) {
+                        out.writeInt(row.quizId);
+                        writeString(out, row.title);
+                        out.writeInt(row.questions.size());
+                        for (Question question : row.questions) {
+                            out.writeInt(question.getQuestionId());
+                            writeString(out, question.getQuestionType());
+                            writeString(out, question.getQuestionText());
+                            writeString(out, question.getCorrectAnswer());
+                            String[] options = DatabaseManager.encodeOptions(question);
+                            out.writeInt(options == null ? -1 : options.length);
+                            for (int i = 0; options != null && i < options.length; i++) {
+                                writeString(out, options[i]);
+                            }
+                        }
+                    }
+                    out.writeInt(submissions.size());
+                    for (SubmissionRow row : submissions.values()) {
+                        out.writeInt(row.userId);
+                        out.writeInt(row.quizId);
+                        out.writeDouble(row.totalScore);
+                        out.writeLong(row.firstAnswerId);
+                        out.writeInt(row.answers.length);
+                        for (int i = 0; i < row.answers.length; i++) {
+                            out.writeInt(row.questionIds[i]);
+                            writeString(out, row.answers[i]);
+                            out.writeDouble(row.scores[i]);
+                        }
+                    }
+                    out.flush();
+                } finally {
+                    lock.readLock().unlock();
+                }
+                channel.force(true);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private void load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a quiz snapshot: " + file);
+            }
+            lastUserId = in.readInt();
+            lastQuizId = in.readInt();
+            lastQuestionId = in.readInt();
+            lastAnswerId = in.readLong();
+
+            for (int n = in.readInt(); n > 0; n--) {
+                UserRow row = new UserRow(in.readInt(), readString(in), readString(in), readString(in),
+                        readString(in));
+                usersById.put(row.userId, row);
+                usersByName.put(row.username, row);
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                String token = readString(in);
+                UserRow user = usersById.get(in.readInt());
+                sessions.put(token, new Session(new User(user.userId, user.name, user.username, "", user.role),
+                        in.readLong()));
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                QuizRow row = new QuizRow(in.readInt(), readString(in));
+                for (int q = in.readInt(); q > 0; q--) {
+                    int questionId = in.readInt();
+                    String type = readString(in);
+                    String text = readString(in);
+                    String correct = readString(in);
+                    int optionCount = in.readInt();
+                    List<String> options = optionCount < 0 ? null : new ArrayList<>(optionCount);
+                    for (int i = 0; i < optionCount; i++) {
+                        options.add(readString(in));
+                    }
+                    Question question = Question.create(questionId, row.quizId, type, text,
+                            options == null ? null : List.copyOf(options), correct);
+                    row.questions.add(question);
+                    questions.put(questionId, question);
+                }
+                quizzes.put(row.quizId, row);
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                int userId = in.readInt();
+                int quizId = in.readInt();
+                double totalScore = in.readDouble();
+                long firstAnswerId = in.readLong();
+                int count = in.readInt();
+                int[] questionIds = new int[count];
+                String[] answers = new String[count];
+                double[] scores = new double[count];
+                for (int i = 0; i < count; i++) {
+                    questionIds[i] = in.readInt();
+                    answers[i] = readString(in);
+                    scores[i] = in.readDouble();
+                }
+                submissions.put(submissionKey(quizId, userId),
+                        new SubmissionRow(userId, quizId, totalScore, firstAnswerId, questionIds, answers, scores));
+            }
+        }
+    }
+
+    // Length-prefixed UTF-8, -1 for null (writeUTF stops at 64 KB)
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+// ListPageSource Class (PageSource over rows computed in memory, each ending in a long key, ordered by that key)
+class ListPageSource implements PageSource {
+    interface Rows {
+        List<Object[]> get() throws SQLException;
+    }
+
+    private final Rows rows;
+
+    public ListPageSource(Rows rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public long count() throws SQLException {
+        return rows.get().size();
+    }
+
+    @Override
+    public List<Object[]> fetchAfter(Object afterKey, int limit) throws SQLException {
+        List<Object[]> all = rows.get();
+        int from = firstAfter(all, afterKey);
+        return new ArrayList<>(all.subList(from, Math.min(all.size(), from + limit)));
+    }
+
+    @Override
+    public Object keyAt(Object afterKey, long offset) throws SQLException {
+        List<Object[]> all = rows.get();
+        long index = firstAfter(all, afterKey) + offset;
+        return index < all.size() ? all.get((int) index)[all.get((int) index).length - 1] : null;
+    }
+
+    // Rows are sorted by their last element, so the first row past afterKey is found by binary search
+    private static int firstAfter(List<Object[]> rows, Object afterKey) {
+        if (afterKey == null) {
+            return 0;
+        }
+        long key = ((Number) afterKey).longValue();
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Object[] row = rows.get(mid);
+            if (((Number) row[row.length - 1]).longValue() <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
+
+// SubmissionJournal Class (memory-mapped, checksummed append-only log of graded submissions, drained into a QuizRepository)
+class SubmissionJournal implements AutoCloseable {
+    private static final int MAGIC = 0x514a4e31; // "QJN1"
+    // magic, drained offset, sequence number of the first undrained record
+    private static final int HEADER_SIZE = 64;
+    private static final int DRAINED_OFFSET_AT = 8;
+    private static final int DRAINED_SEQUENCE_AT = 16;
+    // length of the body, CRC32C of the body; the body starts with the record's sequence number
+    private static final int RECORD_HEADER = 8;
+
+    private final QuizRepository repository;
+    private final Path deadLetterFile;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final MappedByteBuffer buffer;
+    private final boolean sync;
+    private final int batchSize;
+    private final long maxRetryMillis;
+    // Keyed by quizId << 32 | userId, so a second submit is refused while the first is still in the journal
+    private final Set<Long> pending = new HashSet<>();
+    private int writePosition;
+    private int drainedPosition;
+    private long nextSequence;
+    private long drainedSequence;
+    // Records below this were replayed from the last run and may already be stored; skipping those is expected
+    private long recoveredSequence;
+    private final Thread drainer;
+    private volatile boolean closing;
+
+    /*
+     * Open or create the journal. Records left by a previous run are checked against their checksums and
+     * sequence numbers; the first torn or stale record marks the end, and everything before it is replayed.
+     */
+    public SubmissionJournal(Path file, int capacity, boolean sync, QuizRepository repository) throws IOException {
+        this.repository = repository;
+        this.deadLetterFile = file.resolveSibling(file.getFileName() + ".rejected");
+        this.sync = sync;
+        this.batchSize = Integer.getInteger("quizapp.journal.batchSize", 500);
+        this.maxRetryMillis = Long.getLong("quizapp.journal.maxRetryMillis", 30_000L);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // held by this JVM
+        }
+        fileLock = acquired;
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException(file + " is in use by another process");
+        }
+        boolean fresh = channel.size() == 0;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fresh ? capacity : Math.max(capacity, channel.size()));
+        if (fresh) {
+            buffer.putInt(0, MAGIC);
+            checkpoint(HEADER_SIZE, 0);
+        } else if (buffer.getInt(0) != MAGIC) {
+            close();
+            throw new IOException("Not a submission journal: " + file);
+        }
+        recover();
+        drainer = new Thread(this::drainLoop, "journal-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private void recover() {
+        drainedPosition = (int) buffer.getLong(DRAINED_OFFSET_AT);
+        drainedSequence = buffer.getLong(DRAINED_SEQUENCE_AT);
+        writePosition = drainedPosition;
+        nextSequence = drainedSequence;
+        PendingSubmission record;
+        while ((record = read(writePosition, nextSequence)) != null) {
+            pending.add(key(record.quizId, record.userId));
+            writePosition += RECORD_HEADER + buffer.getInt(writePosition);
+            nextSequence++;
+        }
+        recoveredSequence = nextSequence;
+        if (nextSequence > drainedSequence) {
+            System.out.printf("Submission journal: replaying %d submission(s) from the last run%n",
+                    nextSequence - drainedSequence);
+        }
+    }
+
+    private static long key(int quizId, int userId) {
+        return (long) quizId << 32 | (userId & 0xffffffffL);
+    }
+
+    public synchronized boolean isPending(int userId, int quizId) {
+        return pending.contains(key(quizId, userId));
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /*
+     * Append one graded submission and, with sync on, force it to disk before returning. Returns false if the
+     * journal has no room, in which case the caller should write to the database directly.
+     *
+     * Never touches the database, so it acknowledges during a database stall. The acknowledgement means durable,
+     * not accepted: it is no uniqueness guarantee across processes. A submission already waiting here is refused;
+     * one that another process or an earlier drain already stored loses at drain time and goes to the dead-letter
+     * file next to the journal (<journal>.rejected, one JSON object per line) rather than being dropped.
+     */
+    public synchronized boolean append(PendingSubmission submission) throws QuizAlreadySubmittedException {
+        long key = key(submission.quizId, submission.userId);
+        if (pending.contains(key)) {
+            throw new QuizAlreadySubmittedException("You have already attended this quiz.");
+        }
+        if (!write(submission)) {
+            return false;
+        }
+        pending.add(key);
+        return true;
+    }
+
+    private boolean write(PendingSubmission submission) {
+        byte[] body = encode(submission, nextSequence);
+        if (writePosition + RECORD_HEADER + body.length > buffer.capacity()) {
+            if (drainedPosition != writePosition || HEADER_SIZE + RECORD_HEADER + body.length > buffer.capacity()) {
+                return false;
+            }
+            // Everything is drained: start again at the front; older records fail the sequence check on recovery
+            writePosition = HEADER_SIZE;
+            checkpoint(HEADER_SIZE, nextSequence);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.put(writePosition + RECORD_HEADER, body);
+        // The length goes last, so a record is never visible before its body is complete
+        buffer.putInt(writePosition, body.length);
+        if (sync) {
+            buffer.force(writePosition, RECORD_HEADER + body.length);
+        }
+        writePosition += RECORD_HEADER + body.length;
+        nextSequence++;
+        notifyAll();
+        return true;
+    }
+
+    private static byte[] encode(PendingSubmission submission, long sequence) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeInt(submission.userId);
+            out.writeInt(submission.quizId);
+            out.writeDouble(submission.totalScore);
+            out.writeInt(submission.questionIds.length);
+            for (int i = 0; i < submission.questionIds.length; i++) {
+                out.writeInt(submission.questionIds[i]);
+                out.writeDouble(submission.scores[i]);
+                if (submission.answers[i] == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] answer = submission.answers[i].getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(answer.length);
+                    out.write(answer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The record at position if it is intact and carries the expected sequence number, else null
+    private PendingSubmission read(int position, long sequence) {
+        if (position + RECORD_HEADER > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length < 8 || position + RECORD_HEADER + length > buffer.capacity()) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        buffer.get(position + RECORD_HEADER, body);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        ByteBuffer in = ByteBuffer.wrap(body);
+        if (in.getLong() != sequence) {
+            return null;
+        }
+        int userId = in.getInt();
+        int quizId = in.getInt();
+        double totalScore = in.getDouble();
+        int count = in.getInt();
+        int[] questionIds = new int[count];
+        String[] answers = new String[count];
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            questionIds[i] = in.getInt();
+            scores[i] = in.getDouble();
+            int answerLength = in.getInt();
+            if (answerLength >= 0) {
+                answers[i] = new String(body, in.position(), answerLength, StandardCharsets.UTF_8);
+                in.position(in.position() + answerLength);
+            }
+        }
+        return new PendingSubmission(userId, quizId, totalScore, questionIds, answers, scores);
+    }
+
+    private void checkpoint(int position, long sequence) {
+        drainedPosition = position;
+        drainedSequence = sequence;
+        buffer.putLong(DRAINED_OFFSET_AT, position);
+        buffer.putLong(DRAINED_SEQUENCE_AT, sequence);
+        if (sync) {
+            buffer.force(0, HEADER_SIZE);
+        }
+    }
+
+    /*
+     * Replay records into the repository in batches. A record is only checkpointed after its batch commits, so a
+     * crash in between replays it; saveSubmissions skips submissions that are already stored, which makes the
+     * replay harmless. A record of this run that is skipped lost to an earlier submission and is dead-lettered.
+     * While the database or the dead-letter file is unavailable the drainer backs off and retries.
+     */
+    private void drainLoop() {
+        long retryMillis = 100;
+        while (!closing) {
+            try {
+                if (drainBatch()) {
+                    retryMillis = 100;
+                } else {
+                    synchronized (this) {
+                        if (drainedPosition == writePosition && !closing) {
+                            wait(1000);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException | IOException e) {
+                System.err.println("Submission journal: drain failed, retrying in " + retryMillis + " ms: "
+                        + e.getMessage());
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryMillis = Math.min(retryMillis * 2, maxRetryMillis);
+            }
+        }
+    }
+
+    // Write one batch to the repository; false if there was nothing to drain
+    private boolean drainBatch() throws SQLException, IOException {
+        int position;
+        long sequence;
+        int end;
+        synchronized (this) {
+            position = drainedPosition;
+            sequence = drainedSequence;
+            end = writePosition;
+        }
+        long firstSequence = sequence;
+        List<PendingSubmission> batch = new ArrayList<>();
+        while (position < end && batch.size() < batchSize) {
+            batch.add(read(position, sequence));
+            position += RECORD_HEADER + buffer.getInt(position);
+            sequence++;
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<PendingSubmission> skipped = new ArrayList<>();
+        try {
+            skipped.addAll(repository.saveSubmissions(batch));
+        } catch (SQLException e) {
+            // A constraint violation (e.g. the quiz was deleted) would fail the batch forever; set the culprit aside
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            for (PendingSubmission submission : batch) {
+                try {
+                    skipped.addAll(repository.saveSubmissions(List.of(submission)));
+                } catch (SQLException rejected) {
+                    if (rejected.getSQLState() == null || !rejected.getSQLState().startsWith("23")) {
+                        throw rejected;
+                    }
+                    deadLetter(submission, rejected.getMessage());
+                }
+            }
+        }
+        for (PendingSubmission submission : skipped) {
+            if (firstSequence + batch.indexOf(submission) >= recoveredSequence) {
+                deadLetter(submission, "already submitted");
+            }
+        }
+        synchronized (this) {
+            checkpoint(position, sequence);
+            for (PendingSubmission submission : batch) {
+                pending.remove(key(submission.quizId, submission.userId));
+            }
+            notifyAll();
+        }
+        return true;
+    }
+
+    // Append the submission to the dead-letter file; it is only checkpointed away once this has succeeded
+    private void deadLetter(PendingSubmission submission, String reason) throws IOException {
+        List<Object> answers = new ArrayList<>();
+        for (int i = 0; i < submission.questionIds.length; i++) {
+            Map<String, Object> answer = new LinkedHashMap<>();
+            answer.put("questionId", submission.questionIds[i]);
+            answer.put("answer", submission.answers[i]);
+            answer.put("score", submission.scores[i]);
+            answers.add(answer);
+        }
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("rejectedAt", Instant.now().toString());
+        record.put("reason", reason);
+        record.put("userId", submission.userId);
+        record.put("quizId", submission.quizId);
+        record.put("totalScore", submission.totalScore);
+        record.put("answers", answers);
+        byte[] line = (Json.write(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel out = FileChannel.open(deadLetterFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(line);
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            if (sync) {
+                out.force(true);
+            }
+        }
+        System.err.printf("Submission journal: set aside submission of user %d for quiz %d (%s) in %s%n",
+                submission.userId, submission.quizId, reason, deadLetterFile);
+    }
+
+    // Give the drainer up to timeoutMillis to empty the journal; returns true if it did
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            while (drainedPosition != writePosition) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    // Undrained records stay in the file and are replayed on the next start
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        if (drainer != null) {
+            drainer.interrupt();
+            try {
+                drainer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            buffer.force();
+        }
+        fileLock.release();
+        channel.close();
+    }
+}
+
+// LatencyHistogram Class (lock-free log-linear histogram of durations; buckets are at most 12.5% wide)
+class LatencyHistogram {
+    // Values below 16 us get a bucket each; above that every power of two is split into 8 sub-buckets
+    private static final int LINEAR = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = LINEAR + (64 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        buckets.incrementAndGet(index(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    // The largest value that falls into the bucket
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub) << (exponent - 3)) + (1L << (exponent - 3)) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalMicros.sum() / 1000.0 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    // Exact nearest-rank quantile, in milliseconds, of nanosecond samples sorted ascending
+    static double percentileMillis(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+    }
+
+    // Upper bound of the bucket holding the given quantile, never above the recorded maximum
+    public double percentileMillis(double quantile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    // Not atomic with concurrent records; a few samples may land on either side of the reset
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.reset();
+    }
+}
+
+// QueryMetrics Class (latency histograms per operation and normalized statement, published as JMX MBeans)
+class QueryMetrics {
+    private static final String DOMAIN = "quizapp";
+    private static final String[] ATTRIBUTES = { "Count", "MeanMillis", "P50Millis", "P95Millis", "P99Millis",
+            "MaxMillis" };
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    // SQL text to statement name; the SQL strings are constants, so this stays small
+    private final ConcurrentHashMap<String, String> statementNames = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    public QueryMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static QueryMetrics fromSystemProperties() {
+        return new QueryMetrics(Boolean.parseBoolean(System.getProperty("quizapp.metrics.enabled", "true")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Record the time since startNanos (from System.nanoTime()) under name
+    public void record(String name, long startNanos) {
+        if (enabled) {
+            histogram(name).record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public void recordNanos(String name, long elapsedNanos) {
+        if (enabled) {
+            histogram(name).record(elapsedNanos);
+        }
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, this::register);
+    }
+
+    public String statementName(String sql) {
+        String name = statementNames.get(sql);
+        return name != null ? name : statementNames.computeIfAbsent(sql, QueryMetrics::normalize);
+    }
+
+    /*
+     * "sql <verb> <table>" for the statement's verb and the first table it reads or writes, e.g.
+     * "sql select sessions" or "sql insert student_answers"; parameters and literals never appear in the name.
+     */
+    static String normalize(String sql) {
+        String[] words = sql.trim().toLowerCase().split("[\\s(),]+");
+        String verb = words.length == 0 ? "" : words[0];
+        String keyword;
+        switch (verb) {
+            case "insert":
+                keyword = "into";
+                break;
+            case "update":
+                return words.length > 1 ? "sql update " + words[1] : "sql update";
+            default:
+                keyword = "from";
+                break;
+        }
+        for (int i = 1; i < words.length - 1; i++) {
+            if (words[i].equals(keyword)) {
+                return "sql " + verb + " " + words[i + 1];
+            }
+        }
+        return "sql " + verb;
+    }
+
+    private LatencyHistogram register(String name) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=QueryLatency,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            // A newer DatabaseManager in the same JVM takes the name over
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new HistogramMBean(name, histogram), objectName);
+            registered.add(objectName);
+        } catch (JMException e) {
+            System.err.println("Could not publish metrics for " + name + ": " + e.getMessage());
+        }
+        return histogram;
+    }
+
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Already taken over by another instance
+            }
+        }
+        registered.clear();
+    }
+
+    // One line per histogram, by name
+    public String format() {
+        StringBuilder sb = new StringBuilder(String.format("%-32s %9s %9s %9s %9s %9s %9s%n", "operation", "count",
+                "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (String name : new TreeSet<>(histograms.keySet())) {
+            LatencyHistogram h = histograms.get(name);
+            sb.append(String.format("%-32s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, h.getCount(),
+                    h.getMeanMillis(), h.percentileMillis(0.50), h.percentileMillis(0.95), h.percentileMillis(0.99),
+                    h.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    // Append a timestamped copy of format() to the file
+    public void dumpTo(Path file) throws IOException {
+        Files.writeString(file, Instant.now() + System.lineSeparator() + format(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Read-only attributes plus a reset() operation; dynamic because a standard MBean needs a public interface
+    private static class HistogramMBean implements DynamicMBean {
+        private final String name;
+        private final LatencyHistogram histogram;
+
+        HistogramMBean(String name, LatencyHistogram histogram) {
+            this.name = name;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            switch (attribute) {
+                case "Count":
+                    return histogram.getCount();
+                case "MeanMillis":
+                    return histogram.getMeanMillis();
+                case "P50Millis":
+                    return histogram.percentileMillis(0.50);
+                case "P95Millis":
+                    return histogram.percentileMillis(0.95);
+                case "P99Millis":
+                    return histogram.percentileMillis(0.99);
+                case "MaxMillis":
+                    return histogram.getMaxMillis();
+                default: throw new AttributeNotFoundException(attribute);
+            }
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Skipped, as the contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("reset".equals(actionName)) {
+                histogram.reset();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[ATTRIBUTES.length];
+            for (int i = 0; i < ATTRIBUTES.length; i++) {
+                attributes[i] = new MBeanAttributeInfo(ATTRIBUTES[i],
+                        i == 0 ? "long" : "double", ATTRIBUTES[i], true, false, false);
+            }
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset",
+                    "Clear the histogram", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(getClass().getName(), "Latency of " + name, attributes, null,
+                    new MBeanOperationInfo[] { reset }, null);
+        }
+    }
+}
+
+// SlowQueryLog Class (statements over a threshold, with redacted parameters and sampled EXPLAIN ANALYZE, to a rotating file)
+class SlowQueryLog implements AutoCloseable {
+    private static final Pattern INSERT_COLUMNS = Pattern
+            .compile("insert\\s+into\\s+[\\w.]+\\s*\\(([^)]*)\\)\\s*values\\s*\\(");
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final DatabaseManager databaseManager;
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final boolean explainWrites;
+    private final long explainIntervalNanos;
+    private final int explainTimeoutMillis;
+    private final Path file;
+    private final long maxBytes;
+    private final int keepFiles;
+    // Per SQL text: which parameters must never be written, and when it was last explained
+    private final ConcurrentHashMap<String, boolean[]> redactions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> lastExplained = new ConcurrentHashMap<>();
+    // One explain at a time; while it runs, further samples are dropped rather than queued
+    private final ThreadPoolExecutor explainer;
+
+    public SlowQueryLog(DatabaseManager databaseManager, long thresholdMillis, double explainSampleRate,
+            boolean explainWrites, long explainIntervalSeconds, int explainTimeoutMillis, Path file,
+            long maxBytes, int keepFiles) {
+        this.databaseManager = databaseManager;
+        this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : thresholdMillis * 1_000_000;
+        this.explainSampleRate = explainSampleRate;
+        this.explainWrites = explainWrites;
+        this.explainIntervalNanos = explainIntervalSeconds * 1_000_000_000;
+        this.explainTimeoutMillis = explainTimeoutMillis;
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+        explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "slow-query-explain");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /*
+     * A negative quizapp.slowQuery.thresholdMillis turns the log off. Only SELECTs are explained unless
+     * quizapp.slowQuery.explainWrites is set: explaining a write re-executes it on the application's own pool,
+     * holding its row locks until the rollback.
+     */
+    public static SlowQueryLog fromSystemProperties(DatabaseManager databaseManager) {
+        return new SlowQueryLog(databaseManager, Long.getLong("quizapp.slowQuery.thresholdMillis", 250L),
+                Double.parseDouble(System.getProperty("quizapp.slowQuery.explainSampleRate", "0.1")),
+                Boolean.getBoolean("quizapp.slowQuery.explainWrites"),
+                Long.getLong("quizapp.slowQuery.explainIntervalSeconds", 60L),
+                Integer.getInteger("quizapp.slowQuery.explainTimeoutMillis", 10_000),
+                Paths.get(System.getProperty("quizapp.slowQuery.logFile", "slow-queries.log")),
+                Long.getLong("quizapp.slowQuery.maxBytes", 10L * 1024 * 1024),
+                Integer.getInteger("quizapp.slowQuery.files", 5));
+    }
+
+    // Called after every statement; costs one comparison unless the statement was slow
+    public void check(String sql, Object[] params, long elapsedNanos, String name) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        StringBuilder entry = new StringBuilder();
+        entry.append(Instant.now()).append(String.format(" %.1f ms [%s] on %s%n", elapsedNanos / 1e6,
+                name, Thread.currentThread().getName()));
+        entry.append("  ").append(sql.replaceAll("\\s+", " ").trim()).append(System.lineSeparator());
+        entry.append("  params: ").append(formatParameters(sql, params)).append(System.lineSeparator());
+        write(entry.toString());
+
+        if (explainSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < explainSampleRate
+                && isExplainable(sql, explainWrites) && claimExplain(sql)) {
+            explainer.execute(() -> explain(sql, params, elapsedNanos, name));
+        }
+    }
+
+    // At most one explain per statement per interval, however many threads see it being slow
+    private boolean claimExplain(String sql) {
+        long now = System.nanoTime();
+        Long last = lastExplained.get(sql);
+        if (last == null) {
+            return lastExplained.putIfAbsent(sql, now) == null;
+        }
+        return now - last >= explainIntervalNanos && lastExplained.replace(sql, last, now);
+    }
+
+    // Plain SELECTs, and plain DML when writes are allowed; advisory locks or setval() survive a rollback
+    static boolean isExplainable(String sql, boolean writes) {
+        String lower = sql.trim().toLowerCase();
+        boolean read = lower.startsWith("select") && !lower.contains(" for update") && !lower.contains(" for share");
+        return (read || (writes && (lower.startsWith("insert") || lower.startsWith("update")
+                || lower.startsWith("delete") || lower.startsWith("with")))) && !lower.contains("pg_")
+                && !lower.contains("setval(") && !lower.contains("nextval(");
+    }
+
+    /*
+     * EXPLAIN ANALYZE executes the statement again, so it runs in a side transaction that is always rolled back,
+     * under a statement timeout. The plan shows whether the slowness was a bad plan (e.g. a sequential scan on
+     * student_answers) or waiting and I/O (buffers read rather than hit).
+     */
+    private void explain(String sql, Object[] params, long elapsedNanos, String name) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(Instant.now()).append(String.format(
+                " EXPLAIN (ANALYZE, BUFFERS) [%s], sampled after %.1f ms%n", name, elapsedNanos / 1e6));
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement timeout = connection.createStatement()) {
+                    if (!explainWrites) {
+                        timeout.execute("SET TRANSACTION READ ONLY");
+                    }
+                    timeout.execute("SET LOCAL statement_timeout = " + explainTimeoutMillis);
+                }
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                    DatabaseManager.setParams(explain, params);
+                    try (ResultSet rs = explain.executeQuery()) {
+                        while (rs.next()) {
+                            entry.append("  ").append(rs.getString(1)).append(System.lineSeparator());
+                        }
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            entry.append("  explain failed: ").append(e.getMessage()).append(System.lineSeparator());
+        }
+        write(entry.toString());
+    }
+
+    String formatParameters(String sql, Object[] params) {
+        boolean[] redacted = redactions.computeIfAbsent(sql, SlowQueryLog::sensitiveParameters);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object value = params[i];
+            if ((i < redacted.length && redacted[i]) || looksLikePasswordHash(value)) {
+                sb.append("<redacted>");
+            } else if (value == null) {
+                sb.append("NULL");
+            } else if (value instanceof Object[]) {
+                sb.append('<').append(((Object[]) value).length).append(" elements>");
+            } else if (value instanceof String) {
+                String text = (String) value;
+                sb.append('\'').append(text.length() > MAX_PARAMETER_LENGTH
+                        ? text.substring(0, MAX_PARAMETER_LENGTH) + "..."
+                        : text).append('\'');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /*
+     * Marks each ? bound to a column whose name mentions a password or a token, either by comparison or
+     * assignment ("password = ?", "s.token = ?") or by position in an INSERT column list.
+     */
+    static boolean[] sensitiveParameters(String sql) {
+        String lower = sql.toLowerCase();
+        List<Integer> placeholders = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                placeholders.add(i);
+            }
+        }
+        boolean[] sensitive = new boolean[placeholders.size()];
+
+        Matcher insert = INSERT_COLUMNS.matcher(lower);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            int column = 0;
+            for (int i = 0; i < placeholders.size(); i++) {
+                if (placeholders.get(i) >= insert.end() && column < columns.length) {
+                    sensitive[i] = isSensitive(columns[column++].trim());
+                }
+            }
+        }
+        for (int i = 0; i < placeholders.size(); i++) {
+            int at = placeholders.get(i) - 1;
+            while (at >= 0 && Character.isWhitespace(lower.charAt(at))) {
+                at--;
+            }
+            int operatorEnd = at;
+            while (at >= 0 && "=<>!".indexOf(lower.charAt(at)) >= 0) {
+                at--;
+            }
+            if (at == operatorEnd) {
+                continue; // not a comparison or assignment
+            }
+            while (at >= 0 && Character.isWhitespace(lower.charAt(at))) {
+                at--;
+            }
+            int end = at + 1;
+            while (at >= 0 && (Character.isLetterOrDigit(lower.charAt(at)) || lower.charAt(at) == '_'
+                    || lower.charAt(at) == '.')) {
+                at--;
+            }
+            sensitive[i] |= isSensitive(lower.substring(at + 1, end));
+        }
+        return sensitive;
+    }
+
+    private static boolean isSensitive(String column) {
+        return column.contains("password") || column.contains("token");
+    }
+
+    // Belt and braces for statements the column analysis cannot see into
+    private static boolean looksLikePasswordHash(Object value) {
+        return value instanceof String && (((String) value).startsWith("$pbkdf2")
+                || ((String) value).matches("[0-9a-f]{32}"));
+    }
+
+    // Appends one entry, rolling the file over to .1, .2, ... once it would pass maxBytes
+    private synchronized void write(String entry) {
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        try {
+            if (Files.exists(file) && Files.size(file) + bytes.length > maxBytes) {
+                rotate();
+            }
+            Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Slow query log write failed: " + e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(keepFiles));
+        for (int i = keepFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1));
+            }
+        }
+        if (keepFiles > 0) {
+            Files.move(file, rotated(1));
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rotated(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+    }
+}
+
+// SchemaMigrator Class (applies numbered schema changes once, in order, and records them in schema_version)
+class SchemaMigrator {
+    // Any constant shared by every instance; serialises migrations when several servers start together
+    private static final long LOCK_KEY = 0x5155495a4150504cL;
+
+    // A query a migration is meant to speed up, and the index its plan should use
+    static class PlanCheck {
+        final String index;
+        final String sql;
+        final Object[] params;
+
+        PlanCheck(String index, String sql, Object... params) {
+            this.index = index;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+        final List<PlanCheck> checks = new ArrayList<>();
+        String backfill;
+        String[] finish = new String[0];
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+
+        Migration expectIndex(String index, String sql, Object... params) {
+            checks.add(new PlanCheck(index, sql, params));
+            return this;
+        }
+
+        // A later page and the count of a KeysetPageSource, with the SQL it generates
+        Migration expectPage(String index, KeysetPageSource page) {
+            checks.add(new PlanCheck(index, page.fetchSql(0), page.fetchArgs(0, 100)));
+            checks.add(new PlanCheck(index, page.countSql(), page.countArgs()));
+            return this;
+        }
+
+        /*
+         * Rewrite existing rows in short transactions between the statements and the finish statements, so a large
+         * table is never locked for the whole conversion. chunkSql takes (after key, limit), converts the next
+         * chunk in key order and returns its last key, or NULL once nothing is left.
+         */
+        Migration backfill(String chunkSql, String... finishStatements) {
+            this.backfill = chunkSql;
+            this.finish = finishStatements;
+            return this;
+        }
+    }
+
+    /*
+     * Append only: never edit or renumber a migration that has shipped. Index keys and INCLUDE columns stop short
+     * of the unbounded text columns (question_text, options, student_answer), which could push an index entry
+     * past the btree size limit and make inserts fail.
+     */
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "baseline schema from tables.sql",
+                    "CREATE TABLE IF NOT EXISTS users (user_id SERIAL PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                            + "username VARCHAR(50) UNIQUE NOT NULL, password VARCHAR(100) NOT NULL, role VARCHAR(20) NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS sessions (session_id SERIAL PRIMARY KEY, "
+                            + "user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE, token VARCHAR(36) UNIQUE NOT NULL, "
+                            + "expiry_time TIMESTAMP NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS quizzes (quiz_id SERIAL PRIMARY KEY, title VARCHAR(200) NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS questions (question_id SERIAL PRIMARY KEY, "
+                            + "quiz_id INTEGER REFERENCES quizzes(quiz_id) ON DELETE CASCADE, question_text TEXT NOT NULL, "
+                            + "question_type VARCHAR(50) NOT NULL, options TEXT, correct_answer TEXT)",
+                    "CREATE TABLE IF NOT EXISTS student_answers (answer_id SERIAL PRIMARY KEY, "
+                            + "user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE, "
+                            + "quiz_id INTEGER REFERENCES quizzes(quiz_id) ON DELETE CASCADE, "
+                            + "question_id INTEGER REFERENCES questions(question_id) ON DELETE CASCADE, "
+                            + "student_answer TEXT, score NUMERIC(5,2))",
+                    "CREATE TABLE IF NOT EXISTS responses (response_id SERIAL PRIMARY KEY, "
+                            + "user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE, "
+                            + "quiz_id INTEGER REFERENCES quizzes(quiz_id) ON DELETE CASCADE, total_score NUMERIC(5,2), "
+                            + "UNIQUE (user_id, quiz_id))"),
+            // loadQuestions: all of a quiz's questions, in insertion order
+            new Migration(2, "index questions by quiz",
+                    "CREATE INDEX IF NOT EXISTS questions_quiz_id_idx ON questions (quiz_id, question_id)")
+                    .expectIndex("questions_quiz_id_idx", JdbcQuizRepository.QUESTIONS_BY_QUIZ, 1),
+            // A student's answers to one quiz, paged by answer_id; the index covers the count too. The checks only
+            // prove the index is usable (seqscan off); SchemaMigrator.main shows what the planner actually picks
+            new Migration(3, "index student answers by quiz and student",
+                    "CREATE INDEX IF NOT EXISTS student_answers_quiz_user_idx ON student_answers (quiz_id, user_id, answer_id) "
+                            + "INCLUDE (question_id, score)")
+                    .expectPage("student_answers_quiz_user_idx", JdbcQuizRepository.answerPage(null, 1, 1)),
+            // validateSession reads user_id and expiry_time straight from the index; it replaces the plain
+            // unique constraint, which it duplicates
+            new Migration(4, "covering unique index on session tokens",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS sessions_token_idx ON sessions (token) INCLUDE (user_id, expiry_time)",
+                    "ALTER TABLE sessions DROP CONSTRAINT IF EXISTS sessions_token_key")
+                    .expectIndex("sessions_token_idx", JdbcUserRepository.SESSION_BY_TOKEN, "token"),
+            // sweepExpiredSessions: finds expired rows without reading the heap
+            new Migration(5, "index sessions by expiry time",
+                    "CREATE INDEX IF NOT EXISTS sessions_expiry_time_idx ON sessions (expiry_time) INCLUDE (session_id)")
+                    .expectIndex("sessions_expiry_time_idx", JdbcUserRepository.EXPIRED_SESSIONS,
+                            new Timestamp(0), 1000),
+            // Options become a text[] in order; "~"-joined text could not hold an option containing "~"
+            new Migration(6, "store question options as text[]",
+                    "ALTER TABLE questions ADD COLUMN IF NOT EXISTS option_list text[]")
+                    .backfill("WITH batch AS (SELECT question_id FROM questions WHERE question_id > ? ORDER BY question_id LIMIT ?), "
+                            + "converted AS (UPDATE questions q SET option_list = string_to_array(q.options, '~') FROM batch b "
+                            + "WHERE q.question_id = b.question_id AND q.options IS NOT NULL) "
+                            + "SELECT max(question_id) FROM batch",
+                            "UPDATE questions SET option_list = string_to_array(options, '~') WHERE option_list IS NULL AND options IS NOT NULL",
+                            "ALTER TABLE questions DROP COLUMN options",
+                            "ALTER TABLE questions RENAME COLUMN option_list TO options"));
+
+    private static final int BACKFILL_CHUNK = Integer.getInteger("quizapp.schema.backfillChunkSize", 5_000);
+
+    private final DatabaseManager databaseManager;
+
+    public SchemaMigrator(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    // Check the plans against the live statistics without applying anything
+    public static void main(String[] args) throws Exception {
+        System.setProperty("quizapp.schema.migrate", "false");
+        try (DatabaseManager databaseManager = new DatabaseManager()) {
+            for (Migration migration : MIGRATIONS) {
+                for (PlanCheck check : migration.checks) {
+                    String plan = databaseManager.inTransaction(connection -> explain(connection, check));
+                    System.out.printf("%s %s%n%s%n", plan.contains(" " + check.index) ? "uses" : "DOES NOT USE",
+                            check.index, plan);
+                }
+            }
+        }
+    }
+
+    // Apply every pending migration, each in its own transaction; returns how many were applied
+    public int migrate() throws SQLException {
+        databaseManager.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INTEGER PRIMARY KEY, "
+                + "description TEXT NOT NULL, applied_at TIMESTAMP NOT NULL DEFAULT now(), execution_ms BIGINT NOT NULL)");
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            long start = System.nanoTime();
+            String[] statements = migration.statements;
+            if (migration.backfill != null) {
+                // The opening statements must be idempotent: a run that dies mid-backfill repeats them
+                boolean pending = databaseManager.inTransaction(connection -> {
+                    if (isApplied(connection, migration)) {
+                        return false;
+                    }
+                    execute(connection, migration.statements);
+                    return true;
+                });
+                if (!pending) {
+                    continue;
+                }
+                backfill(migration);
+                statements = migration.finish;
+            }
+
+            String[] closing = statements;
+            boolean ran = databaseManager.inTransaction(connection -> {
+                if (isApplied(connection, migration)) {
+                    return false;
+                }
+                execute(connection, closing);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                try (PreparedStatement record = connection.prepareStatement(
+                        "INSERT INTO schema_version (version, description, execution_ms) VALUES (?, ?, ?)")) {
+                    DatabaseManager.setParams(record, migration.version, migration.description, millis);
+                    record.executeUpdate();
+                }
+                System.out.printf("Applied schema migration %d (%s) in %d ms%n", migration.version,
+                        migration.description, millis);
+                verifyPlans(connection, migration);
+                return true;
+            });
+            if (ran) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    // Takes the migration lock for the rest of the transaction, then reports whether the version is recorded
+    private static boolean isApplied(Connection connection, Migration migration) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+            DatabaseManager.setParams(lock, LOCK_KEY);
+            lock.execute();
+        }
+        try (PreparedStatement done = connection.prepareStatement("SELECT 1 FROM schema_version WHERE version = ?")) {
+            DatabaseManager.setParams(done, migration.version);
+            try (ResultSet rs = done.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String[] statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    // One autocommitted chunk at a time, keyed on the last converted row
+    private void backfill(Migration migration) throws SQLException {
+        long after = 0;
+        long chunks = 0;
+        Long last;
+        while ((last = databaseManager.queryForObject(migration.backfill, rs -> {
+            long key = rs.getLong(1);
+            return rs.wasNull() ? null : key;
+        }, after, BACKFILL_CHUNK)) != null) {
+            after = last;
+            chunks++;
+        }
+        System.out.printf("Schema migration %d: backfilled %d chunks of up to %d rows%n", migration.version, chunks,
+                BACKFILL_CHUNK);
+    }
+
+    /*
+     * A freshly migrated table is often nearly empty, and then a sequential scan is cheaper and rightly chosen.
+     * Sequential scans are switched off for the check so it shows whether the query can use the index at all;
+     * run main() against production-sized data to see the planner's real choice. Only the tables of the checked
+     * indexes are analyzed, since this runs inside the migration's transaction.
+     */
+    private static void verifyPlans(Connection connection, Migration migration) throws SQLException {
+        if (migration.checks.isEmpty()) {
+            return;
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        try (PreparedStatement table = connection.prepareStatement(
+                "SELECT indrelid::regclass::text FROM pg_index WHERE indexrelid = to_regclass(?)")) {
+            for (PlanCheck check : migration.checks) {
+                table.setString(1, check.index);
+                try (ResultSet rs = table.executeQuery()) {
+                    if (rs.next()) {
+                        tables.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                statement.execute("ANALYZE " + table);
+            }
+            statement.execute("SET LOCAL enable_seqscan = off");
+        }
+        for (PlanCheck check : migration.checks) {
+            String plan = explain(connection, check);
+            if (!plan.contains(" " + check.index)) {
+                System.err.printf("Schema migration %d: planner does not use %s for%n  %s%n%s%n", migration.version,
+                        check.index, check.sql, plan);
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RESET enable_seqscan");
+        }
+    }
+
+    private static String explain(Connection connection, PlanCheck check) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + check.sql)) {
+            DatabaseManager.setParams(explain, check.params);
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.append("  ").append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+}
+
+// RegradeJob Class (re-scores stored answers after a correct answer has been fixed; holds two pooled connections)
+class RegradeJob {
+    private static final int FETCH_SIZE = 5_000;
+    private static final int CHUNK_SIZE = 20_000;
+    private static final long JOURNAL_WAIT_MILLIS = 30_000;
+
+    private final DatabaseManager databaseManager;
+    private final ForkJoinPool forkJoinPool;
+
+    public RegradeJob(DatabaseManager databaseManager) {
+        this(databaseManager, ForkJoinPool.commonPool());
+    }
+
+    public RegradeJob(DatabaseManager databaseManager, ForkJoinPool forkJoinPool) {
+        this.databaseManager = databaseManager;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public static class Result {
+        public final int quizId;
+        public final long rowsScanned;
+        public final long rowsChanged;
+        public final int responsesUpdated;
+        public final long elapsedMillis;
+
+        Result(int quizId, long rowsScanned, long rowsChanged, int responsesUpdated, long elapsedMillis) {
+            this.quizId = quizId;
+            this.rowsScanned = rowsScanned;
+            this.rowsChanged = rowsChanged;
+            this.responsesUpdated = responsesUpdated;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Re-graded quiz %d: %,d answers scanned, %,d changed, %,d totals updated in %,d ms",
+                    quizId, rowsScanned, rowsChanged, responsesUpdated, elapsedMillis);
+        }
+    }
+
+    /*
+     * Streams the quiz's answers through a server-side cursor, re-scores each chunk in parallel and writes only the
+     * changed scores back with one array-based UPDATE per chunk, committed on its own so row locks are held for one
+     * chunk at a time. The totals are then recomputed in one statement in a short transaction of their own; a run
+     * that fails part-way leaves the chunks it committed, and running it again finishes the job.
+     * The cursor and the writes use separate connections held for the whole run, so the pool needs at least two.
+     */
+    public Result run(int quizId) throws SQLException {
+        ConnectionPool pool = databaseManager.getPool();
+        if (pool != null && pool.getMaxSize() < 2) {
+            throw new SQLException("Re-grading holds two database connections at once; set quizapp.pool.maxSize to 2 or more");
+        }
+        long start = System.nanoTime();
+        // Answers may have been corrected outside this process, so always start from the database
+        databaseManager.invalidateQuiz(quizId);
+        // Journaled submissions were graded with the old key; they must be in student_answers to be re-graded
+        SubmissionJournal journal = databaseManager.getJournal();
+        try {
+            if (journal != null && !journal.awaitDrained(JOURNAL_WAIT_MILLIS)) {
+                throw new SQLException(journal.pendingCount()
+                        + " submission(s) are still waiting to be written to the database; try the re-grade again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the submission journal");
+        }
+        Map<Integer, Question> questions = new HashMap<>();
+        for (Question question : databaseManager.loadQuestions(quizId)) {
+            questions.put(question.getQuestionId(), question);
+        }
+
+        long scanned = 0;
+        long changed = 0;
+        int[] answerIds = new int[CHUNK_SIZE];
+        Question[] chunkQuestions = new Question[CHUNK_SIZE];
+        String[] chunkAnswers = new String[CHUNK_SIZE];
+        double[] oldScores = new double[CHUNK_SIZE];
+        double[] newScores = new double[CHUNK_SIZE];
+
+        try (Connection reader = databaseManager.getConnection(); Connection writer = databaseManager.getConnection()) {
+            // The PostgreSQL driver only uses a cursor when autocommit is off and a fetch size is set
+            reader.setAutoCommit(false);
+            writer.setAutoCommit(false);
+            try (PreparedStatement select = reader.prepareStatement(
+                    "SELECT answer_id, question_id, student_answer, score FROM student_answers WHERE quiz_id = ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                select.setFetchSize(FETCH_SIZE);
+                select.setInt(1, quizId);
+                try (ResultSet rs = select.executeQuery()) {
+                    int n = 0;
+                    while (rs.next()) {
+                        Question question = questions.get(rs.getInt("question_id"));
+                        if (question == null) {
+                            continue;
+                        }
+                        answerIds[n] = rs.getInt("answer_id");
+                        chunkQuestions[n] = question;
+                        chunkAnswers[n] = rs.getString("student_answer");
+                        oldScores[n] = rs.getDouble("score");
+                        n++;
+                        if (n == CHUNK_SIZE) {
+                            changed += regradeChunk(writer, answerIds, chunkQuestions, chunkAnswers, oldScores,
+                                    newScores, n);
+                            scanned += n;
+                            n = 0;
+                        }
+                    }
+                    changed += regradeChunk(writer, answerIds, chunkQuestions, chunkAnswers, oldScores, newScores, n);
+                    scanned += n;
+                }
+            }
+            reader.commit();
+
+            // Every chunk is committed, so this transaction only holds the responses rows it updates
+            int responsesUpdated;
+            try (PreparedStatement totals = writer.prepareStatement(
+                    "UPDATE responses r SET total_score = t.total FROM (SELECT user_id, COALESCE(SUM(score), 0) AS total FROM student_answers WHERE quiz_id = ? GROUP BY user_id) t "
+                            + "WHERE r.quiz_id = ? AND r.user_id = t.user_id AND r.total_score IS DISTINCT FROM t.total")) {
+                DatabaseManager.setParams(totals, quizId, quizId);
+                responsesUpdated = totals.executeUpdate();
+            }
+            writer.commit();
+
+            return new Result(quizId, scanned, changed, responsesUpdated,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private long regradeChunk(Connection writer, int[] answerIds, Question[] chunkQuestions, String[] chunkAnswers,
+            double[] oldScores, double[] newScores, int n) throws SQLException {
+        if (n == 0) {
+            return 0;
+        }
+        forkJoinPool.invoke(new GradeTask(chunkQuestions, chunkAnswers, newScores, 0, n));
+
+        int changed = 0;
+        Integer[] ids = new Integer[n];
+        BigDecimal[] scores = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            if (newScores[i] != oldScores[i]) {
+                ids[changed] = answerIds[i];
+                scores[changed] = BigDecimal.valueOf(newScores[i]);
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            try (PreparedStatement update = writer.prepareStatement(
+                    "UPDATE student_answers sa SET score = v.score FROM (SELECT unnest(?::int[]) AS answer_id, unnest(?::numeric[]) AS score) v WHERE sa.answer_id = v.answer_id")) {
+                update.setArray(1, writer.createArrayOf("int4", Arrays.copyOf(ids, changed)));
+                update.setArray(2, writer.createArrayOf("numeric", Arrays.copyOf(scores, changed)));
+                update.executeUpdate();
+            }
+            writer.commit();
+        }
+        return changed;
+    }
+
+    // Splits a chunk until each piece is small enough to grade on one worker
+    private static class GradeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private static final int THRESHOLD = 2_000;
+
+        private final Question[] questions;
+        private final String[] answers;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        GradeTask(Question[] questions, String[] answers, double[] scores, int from, int to) {
+            this.questions = questions;
+            this.answers = answers;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    scores[i] = questions[i].gradeAnswer(answers[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GradeTask(questions, answers, scores, from, mid),
+                    new GradeTask(questions, answers, scores, mid, to));
+        }
+    }
+}
+
+// LoginGUI Class
+class LoginGUI extends JFrame {
+    private JTextField usernameField;
+    private JPasswordField passwordField;
+    private JButton loginButton;
+    private JButton registerButton;
+    private DatabaseManager databaseManager;
+
+    public LoginGUI(DatabaseManager databaseManager) {
+        super("Login");
+        this.databaseManager = databaseManager;
+
+        // Set up main panel
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        // Create components
+        usernameField = new JTextField(15);
+        passwordField = new JPasswordField(15);
+        loginButton = new JButton("Login");
+        registerButton = new JButton("Register");
+
+        // Create input panel
+        JPanel inputPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+
+        // Username Label and Field
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.anchor = GridBagConstraints.EAST;
+        gbc.insets = new Insets(5, 5, 5, 5);
+        inputPanel.add(new JLabel("Username:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 0;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(usernameField, gbc);
+
+        // Password Label and Field
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.anchor = GridBagConstraints.EAST;
+        inputPanel.add(new JLabel("Password:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 1;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(passwordField, gbc);
+
+        // Buttons panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        buttonPanel.add(loginButton);
+        buttonPanel.add(registerButton);
+
+        // Add components to main panel
+        mainPanel.add(inputPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        // Add main panel to frame
+        setContentPane(mainPanel);
+
+        // Add action listeners
+        loginButton.addActionListener(e -> login());
+        registerButton.addActionListener(e -> openRegistration());
+
+        // Set default button
+        getRootPane().setDefaultButton(loginButton);
+
+        // Frame settings
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        pack(); // Adjust size based on components
+        setLocationRelativeTo(null); // Center on screen
+    }
+
+    private void login() {
+        String username = usernameField.getText().trim();
+        String password = new String(passwordField.getPassword());
+
+        loginButton.setEnabled(false);
+        databaseManager.async().load(() -> {
+            String token = databaseManager.loginUser(username, password);
+            return Map.entry(token, databaseManager.validateSession(token));
+        }, session -> {
+            // Close login window
+            dispose();
+            // Open main application GUI
+            new QuizAppGUI(session.getValue(), session.getKey(), databaseManager).display();
+        }, ex -> {
+            loginButton.setEnabled(true);
+            DatabaseManager.showErrorDialog(this, "Login Error", ex.getMessage());
+        });
+    }
+
+    private void openRegistration() {
+        new RegistrationGUI(databaseManager).setVisible(true);
+    }
+}
+
+// RegistrationGUI Class
+class RegistrationGUI extends JFrame {
+    private JTextField nameField;
+    private JTextField usernameField;
+    private JPasswordField passwordField;
+    private JRadioButton teacherRadioButton;
+    private JRadioButton studentRadioButton;
+    private ButtonGroup roleGroup;
+    private JButton registerButton;
+    private DatabaseManager databaseManager;
+
+    public RegistrationGUI(DatabaseManager databaseManager) {
+        super("Register");
+        this.databaseManager = databaseManager;
+
+        // Set up main panel
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        // Create components
+        nameField = new JTextField(15);
+        usernameField = new JTextField(15);
+        passwordField = new JPasswordField(15);
+        teacherRadioButton = new JRadioButton("Teacher");
+        studentRadioButton = new JRadioButton("Student");
+        roleGroup = new ButtonGroup();
+        roleGroup.add(teacherRadioButton);
+        roleGroup.add(studentRadioButton);
+        studentRadioButton.setSelected(true);
+        registerButton = new JButton("Register");
+
+        // Create input panel
+        JPanel inputPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+
+        gbc.insets = new Insets(5, 5, 5, 5); // Add spacing between components
+
+        // Name Label and Field
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.anchor = GridBagConstraints.EAST;
+        inputPanel.add(new JLabel("Name:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 0;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(nameField, gbc);
+
+        // Username Label and Field
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.anchor = GridBagConstraints.EAST;
+        inputPanel.add(new JLabel("Username:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 1;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(usernameField, gbc);
+
+        // Password Label and Field
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.anchor = GridBagConstraints.EAST;
+        inputPanel.add(new JLabel("Password:"), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 2;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(passwordField, gbc);
+
+        // Role Label and Radio Buttons
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.anchor = GridBagConstraints.EAST;
+        inputPanel.add(new JLabel("Role:"), gbc);
+
+        JPanel rolePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        rolePanel.add(teacherRadioButton);
+        rolePanel.add(studentRadioButton);
+
+        gbc.gridx = 1;
+        gbc.gridy = 3;
+        gbc.anchor = GridBagConstraints.WEST;
+        inputPanel.add(rolePanel, gbc);
+
+        // Add components to main panel
+        mainPanel.add(inputPanel, BorderLayout.CENTER);
+        mainPanel.add(registerButton, BorderLayout.SOUTH);
+
+        // Add action listener
+        registerButton.addActionListener(e -> register());
+
+        // Add main panel to frame
+        setContentPane(mainPanel);
+
+        // Frame settings
+        pack();
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    }
+
+    private void register() {
+        String name = nameField.getText().trim();
+        String username = usernameField.getText().trim();
+        String password = new String(passwordField.getPassword());
+        String role = teacherRadioButton.isSelected() ? "teacher" : "student";
+
+        registerButton.setEnabled(false);
+        databaseManager.async().load(() -> {
+            databaseManager.registerUser(name, username, password, role);
+            return null;
+        }, done -> {
+            JOptionPane.showMessageDialog(this, "Registration successful. Please login.");
+            dispose();
+        }, ex -> {
+            registerButton.setEnabled(true);
+            if (ex instanceof UserAlreadyExistsException) {
+                DatabaseManager.showErrorDialog(this, "Registration Error", ex.getMessage());
+            } else {
+                DatabaseManager.showErrorDialog(this, "Database Error", ex.getMessage());
+            }
+        });
+    }
+}
+
+// QuizAppGUI Class (Implements QuizOperations Interface)
+class QuizAppGUI implements QuizOperations {
+    private JFrame mainFrame;
+    private JButton createQuizButton;
+    private JButton attendQuizButton;
+    private JButton viewResponsesButton;
+    private JButton logoutButton;
+    private JButton manageQuizzesButton;
+    private JButton importUsersButton;
+    private DatabaseManager databaseManager;
+    private User user;
+    private String token;
+
+    public QuizAppGUI(User user, String token, DatabaseManager databaseManager) {
+        this.user = user;
+        this.token = token;
+        this.databaseManager = databaseManager;
+
+        mainFrame = new JFrame("Quiz Management System");
+
+        // Set up main panel
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        // Welcome Label
+        JLabel welcomeLabel = new JLabel("Welcome, " + user.name + " (" + user.role + ")", JLabel.CENTER);
+        welcomeLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        mainPanel.add(welcomeLabel, BorderLayout.NORTH);
+
+        // Buttons Panel
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setLayout(new GridLayout(0, 1, 10, 10)); // Add spacing between buttons
+
+        createQuizButton = new JButton("Create Quiz");
+        attendQuizButton = new JButton("Attend Quiz");
+        viewResponsesButton = new JButton("View Responses");
+
+        buttonPanel.add(createQuizButton);
+        buttonPanel.add(attendQuizButton);
+        buttonPanel.add(viewResponsesButton);
+
+        // Adjust buttons based on user role
+        if ("teacher".equals(user.role)) {
+            createQuizButton.setEnabled(true);
+            viewResponsesButton.setEnabled(true);
+            attendQuizButton.setEnabled(false);
+            manageQuizzesButton = new JButton("Manage Quizzes");
+            buttonPanel.add(manageQuizzesButton);
+            manageQuizzesButton.addActionListener(e -> manageQuizzes());
+            importUsersButton = new JButton("Import Users");
+            buttonPanel.add(importUsersButton);
+            importUsersButton.addActionListener(e -> importUsers());
+        } else if ("student".equals(user.role)) {
+            createQuizButton.setEnabled(false);
+            viewResponsesButton.setEnabled(false);
+            attendQuizButton.setEnabled(true);
+        }
+
+        mainPanel.add(buttonPanel, BorderLayout.CENTER);
+
+        // Logout Button
+        logoutButton = new JButton("Logout");
+        mainPanel.add(logoutButton, BorderLayout.SOUTH);
+
+        // Add action listeners
+        createQuizButton.addActionListener(e -> createQuiz());
+        attendQuizButton.addActionListener(e -> attendQuiz());
+        viewResponsesButton.addActionListener(e -> viewResponses());
+        logoutButton.addActionListener(e -> logout());
+
+        // Set up frame
+        mainFrame.setContentPane(mainPanel);
+        mainFrame.setSize(400, 300);
+        mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        mainFrame.setLocationRelativeTo(null);
+    }
+
+    public void display() {
+        mainFrame.setVisible(true);
+    }
+
+    private void logout() {
+        logoutButton.setEnabled(false);
+        databaseManager.async().load(() -> {
+            databaseManager.logoutUser(token);
+            return null;
+        }, done -> {
+            mainFrame.dispose();
+            new LoginGUI(databaseManager).setVisible(true);
+        }, e -> {
+            DatabaseManager.showErrorDialog(mainFrame, "Logout Error", e.getMessage());
+            mainFrame.dispose();
+            new LoginGUI(databaseManager).setVisible(true);
+        });
+    }
+
+    // Provision accounts from a CSV of name,username,password,role and write a per-row report beside it
+    private void importUsers() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(mainFrame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        Path reportFile = file.resolveSibling(file.getFileName() + ".report.csv");
+
+        importUsersButton.setEnabled(false);
+        databaseManager.async().load(() -> {
+            UserImporter.Report report = new UserImporter(databaseManager).importFile(file);
+            report.writeTo(reportFile);
+            return report;
+        }, report -> {
+            importUsersButton.setEnabled(true);
+            JOptionPane.showMessageDialog(mainFrame, report + "\nPer-row report: " + reportFile);
+        }, e -> {
+            importUsersButton.setEnabled(true);
+            DatabaseManager.showErrorDialog(mainFrame, "Import Error", e.getMessage());
+        });
+    }
+
+    private void manageQuizzes() {
+        new QuizManager(databaseManager, user).setVisible(true);
+    }
+
+    @Override
+    public void createQuiz() {
+        new QuizCreator(databaseManager, user).setVisible(true);
+    }
+
+    @Override
+    public void attendQuiz() {
+        new QuizAttender(databaseManager, user).setVisible(true);
+    }
+
+    @Override
+    public void viewResponses() {
+        new QuizResponseViewer(databaseManager, user).setVisible(true);
+    }
+}
+
+// QuizOperations Interface
+interface QuizOperations {
+    void createQuiz();
+
+    void attendQuiz();
+
+    void viewResponses();
+}
+
+// Json Class (minimal JSON reader/writer for the HTTP API)
+class Json {
+    // Objects and arrays nest by recursion, so bound the depth rather than let a hostile body exhaust the stack
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    // Parses into Map, List, String, Double, Boolean or null
+    public static Object parse(String text) {
+        Json json = new Json(text);
+        Object value = json.readValue();
+        json.skipWhitespace();
+        if (json.pos != text.length()) {
+            throw json.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        enter();
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            depth--;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected field name");
+            }
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            map.put(key, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                depth--;
+                return map;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        enter();
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            depth--;
+            return list;
+        }
+        while (true) {
+            list.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                depth--;
+                return list;
+            }
+        }
+    }
+
+    private String readString() {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char e = text.charAt(pos++);
+            switch (e) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("Bad unicode escape");
+                    }
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default:
+                    sb.append(e);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, pos)) {
+            throw error("Unexpected token");
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private Double readNumber() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : '\0';
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value);
+        return sb.toString();
+    }
+
+    public static void write(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            quote(sb, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                quote(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (Iterable<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                write(sb, item);
+            }
+            sb.append(']');
+        } else {
+            quote(sb, value.toString());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
+
+// ApiException Class (an error with the HTTP status to report it as)
+class ApiException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
+
+// QuizApiServer Class (headless JSON HTTP API over the QuizOperations capabilities)
+class QuizApiServer implements AutoCloseable {
+    private static final int MAX_BODY_BYTES = Integer.getInteger("quizapp.api.maxBodyBytes", 1 << 20);
+
+    private final DatabaseManager databaseManager;
+    private final com.sun.net.httpserver.HttpServer server;
+    private final ExecutorService executor;
+
+    public QuizApiServer(DatabaseManager databaseManager, int port) throws IOException {
+        this.databaseManager = databaseManager;
+        server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress(port), 0);
+        // One (virtual, where available) thread per request; the connection pool bounds database concurrency
+        executor = AsyncDataAccess.newTaskExecutor("http-worker");
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Quiz API listening on port " + server.getAddress().getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    private void handle(com.sun.net.httpserver.HttpExchange exchange) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            body = route(exchange);
+        } catch (ApiException e) {
+            status = e.getStatus();
+            body = Map.of("error", e.getMessage());
+        } catch (IllegalArgumentException | ClassCastException e) {
+            status = 400;
+            body = Map.of("error", "Bad request: " + e.getMessage());
+        } catch (SQLException e) {
+            status = 500;
+            body = Map.of("error", "Database error: " + e.getMessage());
+        } catch (Exception e) {
+            status = 500;
+            body = Map.of("error", String.valueOf(e.getMessage()));
+        }
+
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /*
+     * POST /api/login                      {username, password} -> {token}
+     * POST /api/logout
+     * GET  /api/quizzes                    -> [{quizId, title}]
+     * POST /api/quizzes                    {title, questions:[{type, text, options, correctAnswer}]} (teacher)
+     * GET  /api/quizzes/{id}/questions     -> questions without their answers
+     * POST /api/quizzes/{id}/submit        {answers:[{questionId, answer}]} -> {totalScore} (student)
+     * GET  /api/quizzes/{id}/responses     -> [{userId, name, totalScore}] (teacher)
+     * GET  /api/quizzes/{id}/responses/{userId} -> [{question, answer, score}] (teacher)
+     */
+    private Object route(com.sun.net.httpserver.HttpExchange exchange) throws Exception {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+
+        if (path.length == 1 && "login".equals(path[0])) {
+            requireMethod(method, "POST");
+            Map<String, Object> request = readObject(exchange);
+            try {
+                String token = databaseManager.loginUser(requireString(request, "username"),
+                        requireString(request, "password"));
+                return Map.of("token", token);
+            } catch (UserNotFoundException | InvalidPasswordException e) {
+                throw new ApiException(401, "Invalid username or password");
+            }
+        }
+
+        String token = bearerToken(exchange);
+        User user = authenticate(token);
+
+        if (path.length == 1 && "logout".equals(path[0])) {
+            requireMethod(method, "POST");
+            databaseManager.logoutUser(token);
+            return Map.of("loggedOut", true);
+        }
+        if (path.length >= 1 && "quizzes".equals(path[0])) {
+            if (path.length == 1) {
+                if ("POST".equals(method)) {
+                    return createQuiz(user, readObject(exchange));
+                }
+                requireMethod(method, "GET");
+                List<Object> quizzes = new ArrayList<>();
+                for (Quiz quiz : databaseManager.quizzes().listQuizzes()) {
+                    quizzes.add(Map.of("quizId", quiz.quizId, "title", quiz.title));
+                }
+                return quizzes;
+            }
+            int quizId = parseId(path[1]);
+            if (path.length == 3 && "questions".equals(path[2])) {
+                requireMethod(method, "GET");
+                return questionsFor(quizId);
+            }
+            if (path.length == 3 && "submit".equals(path[2])) {
+                requireMethod(method, "POST");
+                return submit(user, quizId, readObject(exchange));
+            }
+            if (path.length >= 3 && "responses".equals(path[2])) {
+                requireMethod(method, "GET");
+                requireRole(user, "teacher");
+                List<Object> rows = new ArrayList<>();
+                if (path.length == 3) {
+                    for (Submission submission : databaseManager.quizzes().listSubmissions(quizId)) {
+                        rows.add(Map.of("userId", submission.userId, "name", submission.name, "totalScore",
+                                submission.totalScore));
+                    }
+                    return rows;
+                }
+                for (GradedAnswer answer : databaseManager.quizzes().listAnswers(quizId, parseId(path[3]))) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("question", answer.questionText);
+                    row.put("answer", answer.answer);
+                    row.put("score", answer.score);
+                    rows.add(row);
+                }
+                return rows;
+            }
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    private User authenticate(String token) throws ApiException, SQLException {
+        if (token == null) {
+            throw new ApiException(401, "Missing bearer token");
+        }
+        try {
+            User user = databaseManager.validateSession(token);
+            if (user == null) {
+                throw new ApiException(401, "Invalid session");
+            }
+            return user;
+        } catch (SessionExpiredException e) {
+            throw new ApiException(401, e.getMessage());
+        }
+    }
+
+    private List<Object> questionsFor(int quizId) throws SQLException {
+        List<Object> result = new ArrayList<>();
+        for (Question question : databaseManager.loadQuestions(quizId)) {
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("questionId", question.getQuestionId());
+            q.put("type", question.getQuestionType());
+            q.put("text", question.getQuestionText());
+            if (question instanceof MultipleChoiceQuestion) {
+                q.put("options", ((MultipleChoiceQuestion) question).getOptions());
+            } else if (question instanceof TrueFalseQuestion) {
+                q.put("options", List.of("True", "False"));
+            }
+            result.add(q);
+        }
+        return result;
+    }
+
+    private Object submit(User user, int quizId, Map<String, Object> request) throws Exception {
+        requireRole(user, "student");
+        Map<Integer, String> answersById = new HashMap<>();
+        Object items = request.getOrDefault("answers", List.of());
+        if (!(items instanceof List)) {
+            throw new ApiException(400, "Field answers must be an array");
+        }
+        for (Object item : (List<?>) items) {
+            String where = "answers[" + answersById.size() + "]";
+            if (!(item instanceof Map)) {
+                throw new ApiException(400, where + " must be an object");
+            }
+            Map<?, ?> answer = (Map<?, ?>) item;
+            Object questionId = answer.get("questionId");
+            if (!(questionId instanceof Number)) {
+                throw new ApiException(400, where + ": missing or non-numeric questionId");
+            }
+            Object text = answer.get("answer");
+            if (!(text instanceof String)) {
+                throw new ApiException(400, where + ": missing or non-string answer");
+            }
+            if (answersById.put(((Number) questionId).intValue(), (String) text) != null) {
+                throw new ApiException(400, where + ": question " + questionId + " answered twice");
+            }
+        }
+        List<Question> questions = databaseManager.loadQuestions(quizId);
+        if (questions.isEmpty()) {
+            throw new ApiException(404, "Quiz not found");
+        }
+        List<String> answers = new ArrayList<>();
+        for (Question question : questions) {
+            answers.add(answersById.getOrDefault(question.getQuestionId(), ""));
+        }
+        try {
+            return Map.of("totalScore", databaseManager.submitAnswers(user.userId, quizId, questions, answers));
+        } catch (QuizAlreadySubmittedException e) {
+            throw new ApiException(409, e.getMessage());
+        }
+    }
+
+    private Object createQuiz(User user, Map<String, Object> request) throws Exception {
+        requireRole(user, "teacher");
+        String title = requireString(request, "title");
+        List<Question> questions = new ArrayList<>();
+        // A JSON null is treated as a missing field, as QuizImporter does, rather than the text "null"
+        Object items = request.get("questions");
+        for (Object item : items == null ? List.of() : (List<?>) items) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> q = (Map<String, Object>) item;
+            String type = requireString(q, "type");
+            String text = requireString(q, "text").trim();
+            String correctAnswer = q.get("correctAnswer") == null ? "" : q.get("correctAnswer").toString().trim();
+            List<String> options = new ArrayList<>();
+            if (q.get("options") != null) {
+                for (Object option : (List<?>) q.get("options")) {
+                    options.add(String.valueOf(option));
+                }
+            }
+            String error = QuizImporter.validate(title, type, text, options, correctAnswer);
+            if (error != null) {
+                throw new ApiException(400, "Question " + (questions.size() + 1) + ": " + error);
+            }
+            questions.add(Question.create(0, 0, type, text, options, correctAnswer));
+        }
+        if (questions.isEmpty()) {
+            throw new ApiException(400, "A quiz needs at least one question");
+        }
+        return Map.of("quizId", databaseManager.saveQuiz(title, questions));
+    }
+
+    private static void requireRole(User user, String role) throws ApiException {
+        if (!role.equals(user.role)) {
+            throw new ApiException(403, "Only a " + role + " can do this");
+        }
+    }
+
+    private static void requireMethod(String actual, String expected) throws ApiException {
+        if (!expected.equals(actual)) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private static String bearerToken(com.sun.net.httpserver.HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return header.substring("Bearer ".length()).trim();
+    }
+
+    private static int parseId(String value) throws ApiException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private static String requireString(Map<String, Object> request, String field) throws ApiException {
+        Object value = request.get(field);
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Missing field: " + field);
+        }
+        return (String) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readObject(com.sun.net.httpserver.HttpExchange exchange)
+            throws IOException, ApiException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            Object parsed = Json.parse(text.isBlank() ? "{}" : text);
+            if (!(parsed instanceof Map)) {
+                throw new ApiException(400, "Expected a JSON object");
+            }
+            return (Map<String, Object>) parsed;
+        }
+    }
+}
+
+// QuizCreator Class
+class QuizCreator extends JFrame {
+    private JTextField quizTitleField;
+    private JPanel questionsPanel;
+    private JButton addQuestionButton;
+    private JButton saveButton;
+    private DatabaseManager databaseManager;
+    private List<QuestionCreatorPanel> questionPanels;
+    private User user;
+
+    public QuizCreator(DatabaseManager databaseManager, User user) {
+        super("Create Quiz");
+        this.databaseManager = databaseManager;
+        this.user = user;
+
+        // Set up main panel
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        // Quiz Title Panel
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.add(new JLabel("Quiz Title:"), BorderLayout.WEST);
+        quizTitleField = new JTextField(30);
+        titlePanel.add(quizTitleField, BorderLayout.CENTER);
+
+        // Questions Panel
+        questionsPanel = new JPanel();
+        questionsPanel.setLayout(new BoxLayout(questionsPanel, BoxLayout.Y_AXIS));
+        JScrollPane scrollPane = new JScrollPane(questionsPanel);
+
+        // Buttons Panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        addQuestionButton = new JButton("Add Question");
+        saveButton = new JButton("Save Quiz");
+        buttonPanel.add(addQuestionButton);
+        buttonPanel.add(saveButton);
+
+        // Add components to main panel
+        mainPanel.add(titlePanel, BorderLayout.NORTH);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        // Add action listeners
+        addQuestionButton.addActionListener(e -> addQuestionPanel());
+        saveButton.addActionListener(e -> saveQuiz());
+
+        // Initialize question panels list
+        questionPanels = new ArrayList<>();
+
+        // Add initial question panel
+        addQuestionPanel();
+
+        // Set up frame
+        setContentPane(mainPanel);
+        setSize(700, 500);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    }
+
+    public void display() {
+        setVisible(true);
+    }
+
+    private void addQuestionPanel() {
+        int questionNumber = questionPanels.size() + 1;
+        QuestionCreatorPanel questionPanel = new QuestionCreatorPanel(this, questionNumber);
+        questionPanels.add(questionPanel);
+        questionsPanel.add(questionPanel);
+        questionsPanel.revalidate();
+        questionsPanel.repaint();
+    }
+
+    public void removeQuestionPanel(QuestionCreatorPanel questionPanel) {
+        questionPanels.remove(questionPanel);
+        questionsPanel.remove(questionPanel);
+        updateQuestionNumbers();
+        questionsPanel.revalidate();
+        questionsPanel.repaint();
+    }
+
+    private void updateQuestionNumbers() {
+        int number = 1;
+        for (QuestionCreatorPanel qPanel : questionPanels) {
+            qPanel.updateQuestionNumber(number++);
+        }
+    }
+
+    private void saveQuiz() {
+        String title = quizTitleField.getText().trim();
+
+        if (title.isEmpty() || questionPanels.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter quiz title and at least one question.", "Input Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<Question> questions = new ArrayList<>();
+        for (QuestionCreatorPanel qPanel : questionPanels) {
+            Question question = qPanel.createQuestion(0);
+
+            if (question == null || question.getQuestionText().isEmpty()) {
+                continue; // Skip empty questions
+            }
+            questions.add(question);
+        }
+
+        saveButton.setEnabled(false);
+        databaseManager.async().load(() -> databaseManager.saveQuiz(title, questions), quizId -> {
+            JOptionPane.showMessageDialog(this, "Quiz saved successfully.");
+            dispose();
+        }, e -> {
+            saveButton.setEnabled(true);
+            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+        });
+    }
+
+}
+
+// QuestionCreatorPanel Class
+class QuestionCreatorPanel extends JPanel {
+    private JTextField questionField;
+    private JComboBox<String> questionTypeBox;
+    private JPanel optionsPanel;
+    private JButton addOptionButton;
+    private JButton removeQuestionButton;
+    private List<JTextField> optionFields;
+    private JTextField correctAnswerField;
+    private QuizCreator parent;
+
+    public QuestionCreatorPanel(QuizCreator parent, int questionNumber) {
+        this.parent = parent;
+        setLayout(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createTitledBorder("Question " + questionNumber));
+
+        // Question Text Panel
+        JPanel questionTextPanel = new JPanel(new BorderLayout());
+        questionTextPanel.add(new JLabel("Question:"), BorderLayout.WEST);
+        questionField = new JTextField(30);
+        questionTextPanel.add(questionField, BorderLayout.CENTER);
+
+        // Question Type Panel
+        JPanel questionTypePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        questionTypePanel.add(new JLabel("Type:"));
+        questionTypeBox = new JComboBox<>(new String[] { "Short Answer", "True/False", "Multiple Choice" });
+        questionTypePanel.add(questionTypeBox);
+
+        // Correct Answer Panel
+        JPanel correctAnswerPanel = new JPanel(new BorderLayout());
+        correctAnswerPanel.add(new JLabel("Correct Answer:"), BorderLayout.WEST);
+        correctAnswerField = new JTextField(30);
+        correctAnswerPanel.add(correctAnswerField, BorderLayout.CENTER);
+
+        // Options Panel
+        optionsPanel = new JPanel();
+        optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS));
+        JScrollPane optionsScrollPane = new JScrollPane(optionsPanel);
+        optionsScrollPane.setPreferredSize(new Dimension(400, 100));
+
+        // Buttons Panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        addOptionButton = new JButton("Add Option");
+        removeQuestionButton = new JButton("Remove Question");
+        buttonsPanel.add(addOptionButton);
+        buttonsPanel.add(removeQuestionButton);
+
+        // Add components to main panel
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(questionTextPanel, BorderLayout.NORTH);
+        topPanel.add(questionTypePanel, BorderLayout.CENTER);
+        topPanel.add(correctAnswerPanel, BorderLayout.SOUTH);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(optionsScrollPane, BorderLayout.CENTER);
+        add(buttonsPanel, BorderLayout.SOUTH);
+
+        // Initialize option fields list
+        optionFields = new ArrayList<>();
+
+        // Add action listeners
+        questionTypeBox.addActionListener(e -> updateOptionFields());
+        addOptionButton.addActionListener(e -> addOptionField());
+        removeQuestionButton.addActionListener(e -> parent.removeQuestionPanel(this));
+
+        // Initialize options
+        updateOptionFields();
+    }
+
+    public void updateQuestionNumber(int questionNumber) {
+        setBorder(BorderFactory.createTitledBorder("Question " + questionNumber));
+    }
+
+    private void updateOptionFields() {
+        optionsPanel.removeAll();
+        optionFields.clear();
+        String selectedType = (String) questionTypeBox.getSelectedItem();
+
+        if ("Multiple Choice".equals(selectedType)) {
+            addOptionButton.setEnabled(true);
+            addOptionField();
+        } else if ("True/False".equals(selectedType)) {
+            addOptionButton.setEnabled(false);
+            correctAnswerField.setText("True");
+            JTextField trueOption = new JTextField("True");
+            trueOption.setEditable(false);
+            optionFields.add(trueOption);
+            optionsPanel.add(trueOption);
+
+            JTextField falseOption = new JTextField("False");
+            falseOption.setEditable(false);
+            optionFields.add(falseOption);
+            optionsPanel.add(falseOption);
+        } else {
+            addOptionButton.setEnabled(false);
+        }
+
+        optionsPanel.revalidate();
+        optionsPanel.repaint();
+    }
+
+    private void addOptionField() {
+        JTextField optionField = new JTextField();
+        optionFields.add(optionField);
+        optionsPanel.add(optionField);
+        optionsPanel.revalidate();
+        optionsPanel.repaint();
+    }
+
+    public String getQuestionText() {
+        return questionField.getText();
+    }
+
+    public String getQuestionType() {
+        return (String) questionTypeBox.getSelectedItem();
+    }
+
+    public List<String> getOptions() {
+        List<String> options = new ArrayList<>();
+        for (JTextField field : optionFields) {
+            options.add(field.getText());
+        }
+        return options;
+    }
+
+    public String getCorrectAnswer() {
+        return correctAnswerField.getText().trim();
+    }
+
+    public Question createQuestion(int quizId) {
+        String questionText = getQuestionText().trim();
+        String questionType = getQuestionType();
+        String correctAnswer = getCorrectAnswer();
+
+        if (questionText.isEmpty()) {
+            return null; // Skip empty questions
+        }
+
+        switch (questionType) {
+            case "Short Answer":
+                return new ShortAnswerQuestion(0, quizId, questionText, correctAnswer);
+            case "True/False":
+                return new TrueFalseQuestion(0, quizId, questionText, correctAnswer);
+            case "Multiple Choice":
+                List<String> options = getOptions();
+                return new MultipleChoiceQuestion(0, quizId, questionText, options, correctAnswer);
+            default:
+                return null;
+        }
+    }
+}
+
+// QuizAttender Class
+class QuizAttender extends JFrame {
+    private JComboBox<String> quizSelectBox;
+    private JPanel questionsPanel;
+    private JButton submitButton;
+    private DatabaseManager databaseManager;
+    private List<QuestionAttenderPanel> questionPanels;
+    private User user;
+    private Future<?> pendingQuizzes;
+    private Future<?> pendingQuestions;
+
+    public QuizAttender(DatabaseManager databaseManager, User user) {
+        super("Attend Quiz");
+        this.databaseManager = databaseManager;
+        this.user = user;
+
+        // Set up main panel
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        // Quiz Selection Panel
+        JPanel quizSelectPanel = new JPanel(new BorderLayout());
+        quizSelectPanel.add(new JLabel("Select Quiz:"), BorderLayout.WEST);
+        quizSelectBox = new JComboBox<>();
+        quizSelectPanel.add(quizSelectBox, BorderLayout.CENTER);
+
+        // Questions Panel
+        questionsPanel = new JPanel();
+        questionsPanel.setLayout(new BoxLayout(questionsPanel, BoxLayout.Y_AXIS));
+        JScrollPane scrollPane = new JScrollPane(questionsPanel);
+
+        // Submit Button
+        submitButton = new JButton("Submit Responses");
+
+        // Add components to main panel
+        mainPanel.add(quizSelectPanel, BorderLayout.NORTH);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(submitButton, BorderLayout.SOUTH);
+
+        // Add action listeners
+        quizSelectBox.addActionListener(e -> loadQuestions());
+        submitButton.addActionListener(e -> submitResponses());
+
+        // Initialize question panels list
+        questionPanels = new ArrayList<>();
+
+        // Load quizzes; selecting the first one loads its questions
+        loadQuizzes();
+
+        // Set up frame
+        setContentPane(mainPanel);
+        setSize(700, 500);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    }
+
+    public void display() {
+        setVisible(true);
+    }
+
+    private void loadQuizzes() {
+        AsyncDataAccess.cancel(pendingQuizzes);
+        pendingQuizzes = databaseManager.async().load(
+                () -> databaseManager.quizzes().listQuizzes(),
+                quizzes -> {
+                    quizSelectBox.removeAllItems();
+                    for (Quiz quiz : quizzes) {
+                        quizSelectBox.addItem(quiz.toString());
+                    }
+                }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
+    }
+
+    private void loadQuestions() {
+        // A newer selection supersedes any load still in flight
+        AsyncDataAccess.cancel(pendingQuestions);
+        questionsPanel.removeAll();
+        questionPanels.clear();
+        submitButton.setEnabled(false);
+        questionsPanel.revalidate();
+        questionsPanel.repaint();
+        String selectedQuiz = (String) quizSelectBox.getSelectedItem();
+        if (selectedQuiz == null)
+            return;
+
+        int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
+
+        pendingQuestions = databaseManager.async().load(() -> {
+            // Check if student has already submitted responses
+            if (databaseManager.hasSubmitted(user.userId, quizId)) {
+                return null;
+            }
+            return databaseManager.loadQuestions(quizId);
+        }, questions -> {
+            if (questions == null) {
+                // Student has already submitted responses
+                questionsPanel.add(new JLabel("You have already attended this quiz."));
+            } else {
+                submitButton.setEnabled(true);
+                for (Question question : questions) {
+                    QuestionAttenderPanel qPanel = new QuestionAttenderPanel(question);
+                    questionPanels.add(qPanel);
+                    questionsPanel.add(qPanel);
+                }
+            }
+
+            questionsPanel.revalidate();
+            questionsPanel.repaint();
+        }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
+    }
+
+    private void submitResponses() {
+        String selectedQuiz = (String) quizSelectBox.getSelectedItem();
+
+        if (selectedQuiz == null) {
+            JOptionPane.showMessageDialog(this, "Please select a quiz.", "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
+
+        List<Question> questions = new ArrayList<>();
+        List<String> answers = new ArrayList<>();
+        for (QuestionAttenderPanel qPanel : questionPanels) {
+            questions.add(qPanel.getQuestion());
+            answers.add(qPanel.getAnswer());
+        }
+
+        submitButton.setEnabled(false);
+        databaseManager.async().load(() -> databaseManager.submitAnswers(user.userId, quizId, questions, answers),
+                totalScore -> {
+                    JOptionPane.showMessageDialog(this,
+                            "Responses submitted successfully. Your score: " + totalScore);
+                    dispose();
+                }, e -> {
+                    if (e instanceof QuizAlreadySubmittedException) {
+                        DatabaseManager.showErrorDialog(this, "Submission Error", e.getMessage());
+                    } else {
+                        submitButton.setEnabled(true);
+                        DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+                    }
+                });
+    }
+
+}
+
+// QuestionAttenderPanel Class
+class QuestionAttenderPanel extends JPanel {
+    private int questionId;
+    private String questionText;
+    private String questionType;
+    private String options;
+    private JComponent answerComponent;
+    private Question question;
+
+    public QuestionAttenderPanel(Question question) {
+        this.question = question;
+        this.questionId = question.getQuestionId();
+        this.questionText = question.getQuestionText();
+        this.questionType = question.getQuestionType();
+
+        setLayout(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createTitledBorder("Question"));
+
+        JLabel questionLabel = new JLabel("<html><b>" + questionText + "</b></html>");
+        add(questionLabel, BorderLayout.NORTH);
+
+        switch (questionType) {
+            case "Short Answer":
+                answerComponent = new JTextField();
+                break;
+            case "True/False":
+                answerComponent = new JComboBox<>(new String[] { "True", "False" });
+                break;
+            case "Multiple Choice":
+                MultipleChoiceQuestion mcQuestion = (MultipleChoiceQuestion) question;
+                List<String> options = mcQuestion.getOptions();
+                answerComponent = new JComboBox<>(options.toArray(new String[0]));
+                break;
+            default:
+                answerComponent = new JTextField();
+                break;
+        }
+
+        add(answerComponent, BorderLayout.CENTER);
+    }
+
+    public String getAnswer() {
+        if (answerComponent instanceof JTextField) {
+            return ((JTextField) answerComponent).getText().trim();
+        } else if (answerComponent instanceof JComboBox) {
+            return (String) ((JComboBox<?>) answerComponent).getSelectedItem();
+        }
+        return "";
+    }
+
+    public Question getQuestion() {
+        return question;
+    }
+}
+
+// ResponseExporter Class (streams answers for a quiz or the whole gradebook to CSV or JSON)
+class ResponseExporter {
+    public enum Format {
+        CSV, JSON
+    }
+
+    // Called from the exporting thread every few thousand rows and once at the end; false cancels the export
+    interface ProgressListener {
+        boolean onProgress(long rowsWritten, long estimatedTotal);
+    }
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int PROGRESS_EVERY = 10_000;
+    private static final String[] HEADER = { "quiz_id", "quiz_title", "user_id", "username", "name", "total_score",
+            "question_id", "question_text", "student_answer", "score" };
+
+    private final DatabaseManager databaseManager;
+
+    public ResponseExporter(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public static Format formatFor(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".json") ? Format.JSON : Format.CSV;
+    }
+
+    /*
+     * Export one quiz, or every quiz when quizId is null; returns the number of answer rows written. If the
+     * listener cancels, the partial file is deleted and a CancellationException is thrown.
+     */
+    public long export(Integer quizId, Path file, Format format, ProgressListener progress)
+            throws SQLException, IOException {
+        long estimatedTotal = quizId != null
+                ? databaseManager.queryForObject("SELECT count(*) FROM student_answers WHERE quiz_id = ?",
+                        rs -> rs.getLong(1), quizId)
+                : databaseManager.queryForObject(
+                        "SELECT GREATEST(reltuples::bigint, 0) FROM pg_class WHERE oid = 'student_answers'::regclass",
+                        rs -> rs.getLong(1));
+
+        String sql = "SELECT r.quiz_id, qz.title, u.user_id, u.username, u.name, r.total_score, q.question_id, q.question_text, sa.student_answer, sa.score "
+                + "FROM responses r JOIN quizzes qz ON qz.quiz_id = r.quiz_id JOIN users u ON u.user_id = r.user_id "
+                + "JOIN student_answers sa ON sa.quiz_id = r.quiz_id AND sa.user_id = r.user_id "
+                + "JOIN questions q ON q.question_id = sa.question_id"
+                + (quizId != null ? " WHERE r.quiz_id = ?" : "")
+                + " ORDER BY r.quiz_id, r.user_id, sa.answer_id";
+
+        long rows = 0;
+        boolean cancelled = false;
+        try (Connection connection = databaseManager.getConnection();
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                Writer out = new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16)) {
+            // Without autocommit off and a fetch size the driver would buffer the whole result in memory
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                if (quizId != null) {
+                    statement.setInt(1, quizId);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder line = new StringBuilder(256);
+                    Object[] values = new Object[HEADER.length];
+                    if (format == Format.CSV) {
+                        writeCsv(line, HEADER);
+                    } else {
+                        line.append("[\n");
+                    }
+                    out.append(line);
+
+                    while (rs.next()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = rs.getObject(i + 1);
+                        }
+                        line.setLength(0);
+                        if (format == Format.CSV) {
+                            writeCsv(line, values);
+                        } else {
+                            writeJson(line, values, rows > 0);
+                        }
+                        out.append(line);
+                        rows++;
+                        if (progress != null && rows % PROGRESS_EVERY == 0
+                                && !progress.onProgress(rows, Math.max(rows, estimatedTotal))) {
+                            cancelled = true;
+                            break;
+                        }
+                    }
+                    if (format == Format.JSON && !cancelled) {
+                        out.write(rows > 0 ? "\n]\n" : "]\n");
+                    }
+                }
+            }
+            connection.commit();
+        }
+        if (cancelled) {
+            Files.deleteIfExists(file);
+            throw new CancellationException("Export cancelled after " + rows + " answers");
+        }
+        if (progress != null) {
+            progress.onProgress(rows, rows);
+        }
+        return rows;
+    }
+
+    private static void writeCsv(StringBuilder line, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                line.append('"');
+                for (int c = 0; c < text.length(); c++) {
+                    char ch = text.charAt(c);
+                    if (ch == '"') {
+                        line.append('"');
+                    }
+                    line.append(ch);
+                }
+                line.append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        line.append('\n');
+    }
+
+    private static void writeJson(StringBuilder line, Object[] values, boolean comma) {
+        line.append(comma ? ",\n{" : "{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Json.write(line, HEADER[i]);
+            line.append(':');
+            Json.write(line, values[i]);
+        }
+        line.append('}');
+    }
+}
+
+// CsvReader Class (streaming RFC 4180 reader; quoted fields may span lines)
+class CsvReader implements AutoCloseable {
+    private final Reader in;
+    private int lineNumber = 1;
+    private int recordLine;
+    private int pushback = -2;
+
+    public CsvReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in, 1 << 16);
+    }
+
+    // The next record's fields, or null at end of input
+    public String[] next() throws IOException {
+        recordLine = lineNumber;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') {
+                        pushback = n;
+                    }
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Line on which the record last returned by next() started
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+        } else {
+            c = in.read();
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
+
+// QuizImporter Class (bulk loads quizzes and questions through PostgreSQL COPY)
+class QuizImporter {
+    private static final int COPY_BUFFER = 1 << 16;
+
+    private final DatabaseManager databaseManager;
+
+    public QuizImporter(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public static class Report {
+        // Only the first reasons are kept; a file of millions of bad lines just counts up
+        static final int MAX_REASONS = 10;
+
+        public int quizzes;
+        public long questions;
+        public long rejected;
+        public final List<String> rejectedReasons = new ArrayList<>();
+        public long elapsedMillis;
+
+        void reject(String reason) {
+            rejected++;
+            if (rejectedReasons.size() < MAX_REASONS) {
+                rejectedReasons.add(reason);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("Imported %,d quizzes with %,d questions in %,d ms",
+                    quizzes, questions, elapsedMillis));
+            if (rejected > 0) {
+                sb.append(String.format("; %,d records rejected", rejected));
+                for (String reason : rejectedReasons) {
+                    sb.append("\n  ").append(reason);
+                }
+                if (rejected > rejectedReasons.size()) {
+                    sb.append(String.format("\n  ... and %,d more", rejected - rejectedReasons.size()));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    // Receives each valid question, in file order, tagged with the quiz it belongs to
+    private interface RecordSink {
+        void accept(int quizKey, String quizTitle, Question question) throws IOException, SQLException;
+    }
+
+    /*
+     * CSV files have the header quiz_title,question_type,question_text,options,correct_answer with options
+     * separated by "|"; consecutive rows with the same title form one quiz. .jsonl/.ndjson files hold one quiz per
+     * line: {"title": ..., "questions": [{"type", "text", "options": [...], "correctAnswer"}]}. Either way the
+     * file is read record by record and only one quiz's questions are held in memory, and a quiz with any invalid
+     * question is rejected as a whole rather than imported without it.
+     */
+    public Report importFile(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Report report = new Report();
+        String name = file.getFileName().toString().toLowerCase();
+        boolean jsonLines = name.endsWith(".jsonl") || name.endsWith(".ndjson");
+
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int[] counts = databaseManager.inTransaction(connection -> {
+                try (Statement ddl = connection.createStatement()) {
+                    ddl.execute("CREATE TEMP TABLE quiz_import_staging (quiz_key int NOT NULL, ordinal int NOT NULL, "
+                            + "quiz_title text NOT NULL, question_type text NOT NULL, question_text text NOT NULL, "
+                            + "options text[], correct_answer text) ON COMMIT DROP");
+                }
+                org.postgresql.copy.CopyIn copy = connection.unwrap(org.postgresql.PGConnection.class).getCopyAPI()
+                        .copyIn("COPY quiz_import_staging FROM STDIN (FORMAT csv)");
+                try {
+                    StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+                    int[] ordinal = { 0 };
+                    RecordSink sink = (quizKey, title, question) -> {
+                        appendCsv(buffer, Integer.toString(quizKey));
+                        buffer.append(',');
+                        appendCsv(buffer, Integer.toString(ordinal[0]++));
+                        buffer.append(',');
+                        appendCsv(buffer, title);
+                        buffer.append(',');
+                        appendCsv(buffer, question.getQuestionType());
+                        buffer.append(',');
+                        appendCsv(buffer, question.getQuestionText());
+                        buffer.append(',');
+                        appendCsv(buffer, DatabaseManager.arrayLiteral(DatabaseManager.encodeOptions(question)));
+                        buffer.append(',');
+                        appendCsv(buffer, question.getCorrectAnswer());
+                        buffer.append('\n');
+                        if (buffer.length() >= COPY_BUFFER) {
+                            flush(copy, buffer);
+                        }
+                    };
+                    if (jsonLines) {
+                        readJsonLines(in, sink, report);
+                    } else {
+                        readCsv(in, sink, report);
+                    }
+                    flush(copy, buffer);
+                    copy.endCopy();
+                } catch (IOException e) {
+                    throw new SQLException("Import failed: " + e.getMessage(), e);
+                } finally {
+                    if (copy.isActive()) {
+                        copy.cancelCopy();
+                    }
+                }
+
+                // Reserve ids for every staged quiz, then move everything across with two set-based inserts
+                try (Statement move = connection.createStatement()) {
+                    move.execute("CREATE TEMP TABLE quiz_import_ids ON COMMIT DROP AS "
+                            + "SELECT quiz_key, nextval('quizzes_quiz_id_seq')::int AS quiz_id, quiz_title "
+                            + "FROM (SELECT DISTINCT ON (quiz_key) quiz_key, quiz_title FROM quiz_import_staging ORDER BY quiz_key) s");
+                    int quizzes = move.executeUpdate(
+                            "INSERT INTO quizzes (quiz_id, title) SELECT quiz_id, quiz_title FROM quiz_import_ids ORDER BY quiz_key");
+                    int questions = move.executeUpdate(
+                            "INSERT INTO questions (quiz_id, question_text, question_type, options, correct_answer) "
+                                    + "SELECT m.quiz_id, s.question_text, s.question_type, s.options, s.correct_answer "
+                                    + "FROM quiz_import_staging s JOIN quiz_import_ids m USING (quiz_key) ORDER BY s.ordinal");
+                    return new int[] { quizzes, questions };
+                }
+            });
+            report.quizzes = counts[0];
+            report.questions = counts[1];
+        }
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    private static void readCsv(Reader in, RecordSink sink, Report report) throws IOException, SQLException {
+        CsvReader csv = new CsvReader(in);
+        String[] header = csv.next();
+        if (header == null) {
+            return;
+        }
+        CsvQuiz quiz = new CsvQuiz();
+        String[] record;
+        while ((record = csv.next()) != null) {
+            if (record.length == 1 && record[0].isEmpty()) {
+                continue; // blank line
+            }
+            String title = record[0].trim();
+            // A row without a title cannot start a quiz, so it counts against the one it interrupts
+            if (quiz.title == null || !title.isEmpty() && !title.equals(quiz.title)) {
+                quiz.finish(sink, report);
+                quiz.title = title;
+            }
+            quiz.rows++;
+            if (quiz.error != null) {
+                continue;
+            }
+            if (record.length < 5) {
+                quiz.error = "line " + csv.getRecordLine() + ": expected 5 fields, found " + record.length;
+                continue;
+            }
+            List<String> options = record[3].isEmpty() ? List.of() : List.of(record[3].split("\\|", -1));
+            String error = validate(title, record[1].trim(), record[2].trim(), options, record[4].trim());
+            if (error != null) {
+                quiz.error = "line " + csv.getRecordLine() + ": " + error;
+                continue;
+            }
+            quiz.questions.add(Question.create(0, 0, record[1].trim(), record[2].trim(), options, record[4].trim()));
+        }
+        quiz.finish(sink, report);
+    }
+
+    // The consecutive CSV rows of one quiz, passed on only once every row has proved valid
+    private static class CsvQuiz {
+        int quizKey;
+        String title;
+        int rows;
+        String error;
+        final List<Question> questions = new ArrayList<>();
+
+        void finish(RecordSink sink, Report report) throws IOException, SQLException {
+            if (error != null) {
+                report.reject(String.format("%s (quiz '%s' skipped, %d row(s))", error, title, rows));
+            } else if (!questions.isEmpty()) {
+                quizKey++;
+                for (Question question : questions) {
+                    sink.accept(quizKey, title, question);
+                }
+            }
+            title = null;
+            rows = 0;
+            error = null;
+            questions.clear();
+        }
+    }
+
+    private static void readJsonLines(Reader in, RecordSink sink, Report report) throws IOException, SQLException {
+        BufferedReader lines = new BufferedReader(in);
+        String line;
+        int lineNumber = 0;
+        int quizKey = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Map<?, ?> quiz = (Map<?, ?>) Json.parse(line);
+                String title = String.valueOf(quiz.get("title")).trim();
+                List<?> items = (List<?>) quiz.get("questions");
+                if (quiz.get("title") == null || title.isEmpty() || items == null || items.isEmpty()) {
+                    report.reject("line " + lineNumber + ": a quiz needs a title and at least one question");
+                    continue;
+                }
+                List<Question> questions = new ArrayList<>();
+                String error = null;
+                for (int i = 0; i < items.size() && error == null; i++) {
+                    Map<?, ?> item = (Map<?, ?>) items.get(i);
+                    String type = String.valueOf(item.get("type")).trim();
+                    String text = item.get("text") == null ? "" : item.get("text").toString().trim();
+                    String correct = item.get("correctAnswer") == null ? "" : item.get("correctAnswer").toString().trim();
+                    List<String> options = new ArrayList<>();
+                    if (item.get("options") instanceof List) {
+                        for (Object option : (List<?>) item.get("options")) {
+                            options.add(String.valueOf(option));
+                        }
+                    }
+                    error = validate(title, type, text, options, correct);
+                    if (error != null) {
+                        error = "question " + (i + 1) + ": " + error;
+                    } else {
+                        questions.add(Question.create(0, 0, type, text, options, correct));
+                    }
+                }
+                if (error != null) {
+                    report.reject("line " + lineNumber + ": " + error);
+                    continue;
+                }
+                quizKey++;
+                for (Question question : questions) {
+                    sink.accept(quizKey, title, question);
+                }
+            } catch (IllegalArgumentException | ClassCastException e) {
+                report.reject("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Null when the record would make a valid question, otherwise the reason it is rejected
+    static String validate(String title, String type, String text, List<String> options, String correctAnswer) {
+        if (title.isEmpty()) {
+            return "missing quiz title";
+        }
+        if (text.isEmpty()) {
+            return "missing question text";
+        }
+        switch (type) {
+            case "Short Answer":
+                return correctAnswer.isEmpty() ? "missing correct answer" : null;
+            case "True/False":
+                return "True".equalsIgnoreCase(correctAnswer) || "False".equalsIgnoreCase(correctAnswer) ? null
+                        : "true/false answer must be True or False";
+            case "Multiple Choice":
+                if (options.size() < 2) {
+                    return "multiple choice needs at least two options";
+                }
+                for (String option : options) {
+                    if (option.equalsIgnoreCase(correctAnswer)) {
+                        return null;
+                    }
+                }
+                return "correct answer is not one of the options";
+            default:
+                return "unknown question type '" + type + "'";
+        }
+    }
+
+    static void appendCsv(StringBuilder buffer, String value) {
+        if (value == null) {
+            return; // unquoted empty field is NULL in COPY csv
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    static void flush(org.postgresql.copy.CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
+
+// UserImporter Class (bulk provisioning of accounts from CSV)
+class UserImporter {
+    private static final int CHUNK_SIZE = 5_000;
+
+    private final DatabaseManager databaseManager;
+
+    public UserImporter(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public static class RowResult {
+        public final int line;
+        public final String username;
+        public final String status;
+        public final String message;
+
+        RowResult(int line, String username, String status, String message) {
+            this.line = line;
+            this.username = username;
+            this.status = status;
+            this.message = message;
+        }
+    }
 
-        // Initialize option fields list
-        optionFields = new ArrayList<>();
+    public static class Report {
+        public final List<RowResult> rows = new ArrayList<>();
+        public int created;
+        public int skipped;
+        public int rejected;
+        public long elapsedMillis;
+
+        // One line per input row: line,username,status,message
+        public void writeTo(Path file) throws IOException {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("line,username,status,message\n");
+                StringBuilder line = new StringBuilder();
+                for (RowResult row : rows) {
+                    line.setLength(0);
+                    line.append(row.line).append(',');
+                    QuizImporter.appendCsv(line, row.username);
+                    line.append(',').append(row.status).append(',');
+                    QuizImporter.appendCsv(line, row.message);
+                    out.append(line).append('\n');
+                }
+            }
+        }
 
-        // Add action listeners
-        questionTypeBox.addActionListener(e -> updateOptionFields());
-        addOptionButton.addActionListener(e -> addOptionField());
-        removeQuestionButton.addActionListener(e -> parent.removeQuestionPanel(this));
+        @Override
+        public String toString() {
+            return String.format("Created %,d accounts, skipped %,d existing, rejected %,d invalid rows in %,d ms",
+                    created, skipped, rejected, elapsedMillis);
+        }
+    }
 
-        // Initialize options
-        updateOptionFields();
+    /*
+     * CSV header: name,username,password,role. Rows are processed in chunks: one query finds the usernames that
+     * already exist, passwords are hashed in parallel, and one unnest() insert with ON CONFLICT DO NOTHING writes
+     * the chunk, so the cost grows with cores rather than with database round trips.
+     */
+    public Report importFile(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Report report = new Report();
+        Set<String> seen = new HashSet<>();
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            if (csv.next() == null) {
+                return report;
+            }
+            List<String[]> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+            String[] record;
+            while ((record = csv.next()) != null) {
+                if (record.length == 1 && record[0].isEmpty()) {
+                    continue; // blank line
+                }
+                int line = csv.getRecordLine();
+                String error = validate(record);
+                String username = record.length > 1 ? record[1].trim() : "";
+                if (error == null && !seen.add(username)) {
+                    error = "duplicate username in file";
+                }
+                if (error != null) {
+                    report.rows.add(new RowResult(line, username, "rejected", error));
+                    report.rejected++;
+                    continue;
+                }
+                chunk.add(record);
+                lines.add(line);
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk, lines, report);
+                    chunk.clear();
+                    lines.clear();
+                }
+            }
+            insertChunk(chunk, lines, report);
+        }
+        report.rows.sort(Comparator.comparingInt(row -> row.line));
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
     }
 
-    public void updateQuestionNumber(int questionNumber) {
-        setBorder(BorderFactory.createTitledBorder("Question " + questionNumber));
+    static String validate(String[] record) {
+        if (record.length < 4) {
+            return "expected 4 fields, found " + record.length;
+        }
+        if (record[0].trim().isEmpty() || record[1].trim().isEmpty() || record[2].isEmpty()) {
+            return "name, username and password are required";
+        }
+        if (record[1].trim().length() > 50 || record[0].trim().length() > 100) {
+            return "name or username too long";
+        }
+        String role = record[3].trim().toLowerCase();
+        if (!"student".equals(role) && !"teacher".equals(role)) {
+            return "role must be student or teacher";
+        }
+        return null;
     }
 
-    private void updateOptionFields() {
-        optionsPanel.removeAll();
-        optionFields.clear();
-        String selectedType = (String) questionTypeBox.getSelectedItem();
+    private void insertChunk(List<String[]> chunk, List<Integer> lines, Report report) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        String[] usernames = new String[chunk.size()];
+        for (int i = 0; i < usernames.length; i++) {
+            usernames[i] = chunk.get(i)[1].trim();
+        }
 
-        if ("Multiple Choice".equals(selectedType)) {
-            addOptionButton.setEnabled(true);
-            addOptionField();
-        } else if ("True/False".equals(selectedType)) {
-            addOptionButton.setEnabled(false);
-            correctAnswerField.setText("True");
-            JTextField trueOption = new JTextField("True");
-            trueOption.setEditable(false);
-            optionFields.add(trueOption);
-            optionsPanel.add(trueOption);
+        Set<String> existing = new HashSet<>();
+        try (Connection connection = databaseManager.getConnection();
+                PreparedStatement select = connection
+                        .prepareStatement("SELECT username FROM users WHERE username = ANY (?)")) {
+            select.setArray(1, connection.createArrayOf("varchar", usernames));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
 
-            JTextField falseOption = new JTextField("False");
-            falseOption.setEditable(false);
-            optionFields.add(falseOption);
-            optionsPanel.add(falseOption);
-        } else {
-            addOptionButton.setEnabled(false);
+        List<Integer> fresh = new ArrayList<>();
+        for (int i = 0; i < usernames.length; i++) {
+            if (existing.contains(usernames[i])) {
+                report.rows.add(new RowResult(lines.get(i), usernames[i], "skipped", "username already exists"));
+                report.skipped++;
+            } else {
+                fresh.add(i);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
         }
 
-        optionsPanel.revalidate();
-        optionsPanel.repaint();
+        // Hashing dominates the cost of provisioning, so spread it across every core
+        String[] names = new String[fresh.size()];
+        String[] logins = new String[fresh.size()];
+        String[] hashes = new String[fresh.size()];
+        String[] roles = new String[fresh.size()];
+        IntStream.range(0, fresh.size()).parallel().forEach(i -> {
+            String[] record = chunk.get(fresh.get(i));
+            names[i] = record[0].trim();
+            logins[i] = record[1].trim();
+            hashes[i] = databaseManager.hashPassword(record[2]);
+            roles[i] = record[3].trim().toLowerCase();
+        });
+
+        Set<String> inserted = new HashSet<>();
+        try (Connection connection = databaseManager.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO users (name, username, password, role) SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[]) "
+                                + "ON CONFLICT (username) DO NOTHING RETURNING username")) {
+            insert.setArray(1, connection.createArrayOf("varchar", names));
+            insert.setArray(2, connection.createArrayOf("varchar", logins));
+            insert.setArray(3, connection.createArrayOf("varchar", hashes));
+            insert.setArray(4, connection.createArrayOf("varchar", roles));
+            try (ResultSet rs = insert.executeQuery()) {
+                while (rs.next()) {
+                    inserted.add(rs.getString(1));
+                }
+            }
+        }
+
+        for (int i = 0; i < logins.length; i++) {
+            int line = lines.get(fresh.get(i));
+            if (inserted.contains(logins[i])) {
+                report.rows.add(new RowResult(line, logins[i], "created", ""));
+                report.created++;
+            } else {
+                // Registered by someone else between the existence check and the insert
+                report.rows.add(new RowResult(line, logins[i], "skipped", "username already exists"));
+                report.skipped++;
+            }
+        }
     }
+}
 
-    private void addOptionField() {
-        JTextField optionField = new JTextField();
-        optionFields.add(optionField);
-        optionsPanel.add(optionField);
-        optionsPanel.revalidate();
-        optionsPanel.repaint();
+// Distribution Interface (seeded random values from a textual spec, shared by the load and data generators)
+interface Distribution {
+    double sample(Random random);
+
+    // fixed:<x> | uniform:<min>-<max> | normal:<mean>:<stddev> | exponential:<mean>
+    static Distribution parse(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "fixed": {
+                double value = Double.parseDouble(parts[1]);
+                return random -> value;
+            }
+            case "uniform": {
+                String[] range = parts[1].split("-");
+                double min = Double.parseDouble(range[0]);
+                double max = Double.parseDouble(range[1]);
+                return random -> min + random.nextDouble() * (max - min);
+            }
+            case "normal": {
+                double mean = Double.parseDouble(parts[1]);
+                double stddev = Double.parseDouble(parts[2]);
+                return random -> mean + random.nextGaussian() * stddev;
+            }
+            case "exponential": {
+                double mean = Double.parseDouble(parts[1]);
+                return random -> -mean * Math.log(1.0 - random.nextDouble());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + spec);
+        }
     }
+}
 
-    public String getQuestionText() {
-        return questionField.getText();
+// ExamLoadSimulator Class (headless exam-day load: login -> load quiz -> think -> submit for N concurrent students)
+class ExamLoadSimulator {
+    private static final String[] STAGES = { "login", "validateSession", "loadQuestions", "submit" };
+    private static final String USERNAME_PREFIX = "loadtest-";
+    private static final String PASSWORD = "loadtest-password";
+
+    // When student i (of n) starts, in millis after the run begins
+    interface RampUp {
+        long startOffsetMillis(int i, int n);
     }
 
-    public String getQuestionType() {
-        return (String) questionTypeBox.getSelectedItem();
+    // How long a student spends answering before submitting
+    interface ThinkTime {
+        long millis(Random random);
     }
 
-    public List<String> getOptions() {
-        List<String> options = new ArrayList<>();
-        for (JTextField field : optionFields) {
-            options.add(field.getText());
+    private final DatabaseManager databaseManager;
+    private final int students;
+    private final RampUp rampUp;
+    private final ThinkTime thinkTime;
+    private final long seed;
+    private final long[][] latencies;
+    private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+
+    public ExamLoadSimulator(DatabaseManager databaseManager, int students, RampUp rampUp, ThinkTime thinkTime,
+            long seed) {
+        this.databaseManager = databaseManager;
+        this.students = students;
+        this.rampUp = rampUp;
+        this.thinkTime = thinkTime;
+        this.seed = seed;
+        this.latencies = new long[STAGES.length][students];
+    }
+
+    /*
+     * Settings are system properties:
+     *   quizapp.load.students      number of concurrent students (default 1000)
+     *   quizapp.load.rampUp        burst | linear:<seconds> | steps:<waves>:<seconds> (default linear:60)
+     *   quizapp.load.thinkTime     none | fixed:<ms> | uniform:<min>-<max> | normal:<mean>:<sd> | exponential:<mean>
+     *                              (default uniform:5000-30000)
+     *   quizapp.load.quizId        quiz to sit; a mixed 20-question quiz is created when absent
+     *   quizapp.load.seed          random seed for answers and think times (default 42)
+     */
+    public static void main(String[] args) throws Exception {
+        int students = Integer.getInteger("quizapp.load.students", 1000);
+        RampUp rampUp = parseRampUp(System.getProperty("quizapp.load.rampUp", "linear:60"));
+        ThinkTime thinkTime = parseThinkTime(System.getProperty("quizapp.load.thinkTime", "uniform:5000-30000"));
+        long seed = Long.getLong("quizapp.load.seed", 42L);
+
+        try (DatabaseManager databaseManager = new DatabaseManager()) {
+            ExamLoadSimulator simulator = new ExamLoadSimulator(databaseManager, students, rampUp, thinkTime, seed);
+            Integer quizId = Integer.getInteger("quizapp.load.quizId");
+            int quiz = simulator.prepare(quizId != null ? quizId : -1);
+            System.out.printf("students=%d rampUp=%s thinkTime=%s quiz=%d%n", students,
+                    System.getProperty("quizapp.load.rampUp", "linear:60"),
+                    System.getProperty("quizapp.load.thinkTime", "uniform:5000-30000"), quiz);
+            long elapsed = simulator.run(quiz);
+            simulator.report(elapsed, System.out);
+            if (databaseManager.getPool() != null) {
+                System.out.println("pool: " + databaseManager.getPool().getStats());
+            }
+            System.out.print(databaseManager.getMetrics().format());
         }
-        return options;
     }
 
-    public String getCorrectAnswer() {
-        return correctAnswerField.getText().trim();
+    static RampUp parseRampUp(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "burst":
+                return (i, n) -> 0;
+            case "linear": {
+                long millis = Long.parseLong(parts[1]) * 1000;
+                return (i, n) -> millis * i / n;
+            }
+            case "steps": {
+                int waves = Integer.parseInt(parts[1]);
+                long millis = Long.parseLong(parts[2]) * 1000;
+                return (i, n) -> waves <= 1 ? 0 : millis * ((long) i * waves / n) / (waves - 1);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown ramp-up profile: " + spec);
+        }
     }
 
-    public Question createQuestion(int quizId) {
-        String questionText = getQuestionText().trim();
-        String questionType = getQuestionType();
-        String correctAnswer = getCorrectAnswer();
+    // none, or any Distribution spec in milliseconds
+    static ThinkTime parseThinkTime(String spec) {
+        if ("none".equals(spec)) {
+            return random -> 0;
+        }
+        Distribution distribution = Distribution.parse(spec);
+        return random -> Math.max(0, Math.round(distribution.sample(random)));
+    }
 
-        if (questionText.isEmpty()) {
-            return null; // Skip empty questions
+    /*
+     * Make sure every simulated student exists (the importer skips existing ones) and clear their earlier
+     * submissions for the quiz, so a run can be repeated. Returns the quiz to use, creating one if needed.
+     */
+    int prepare(int quizId) throws Exception {
+        if (databaseManager.getPool() == null) {
+            return prepareInMemory(quizId);
+        }
+        Path csv = Files.createTempFile("loadtest-users", ".csv");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+                out.write("name,username,password,role\n");
+                for (int i = 0; i < students; i++) {
+                    out.write("Load Student " + i + "," + USERNAME_PREFIX + i + "," + PASSWORD + ",student\n");
+                }
+            }
+            System.out.println("provisioning: " + new UserImporter(databaseManager).importFile(csv));
+        } finally {
+            Files.deleteIfExists(csv);
         }
 
-        switch (questionType) {
-            case "Short Answer":
-                return new ShortAnswerQuestion(0, quizId, questionText, correctAnswer);
-            case "True/False":
-                return new TrueFalseQuestion(0, quizId, questionText, correctAnswer);
-            case "Multiple Choice":
-                List<String> options = getOptions();
-                return new MultipleChoiceQuestion(0, quizId, questionText, options, correctAnswer);
-            default:
-                return null;
+        if (quizId < 0) {
+            quizId = databaseManager.saveQuiz("Load test quiz", loadTestQuestions());
+        }
+
+        String simulated = "SELECT user_id FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'";
+        databaseManager.executeUpdate(
+                "DELETE FROM student_answers WHERE quiz_id = ? AND user_id IN (" + simulated + ")", quizId);
+        databaseManager.executeUpdate("DELETE FROM responses WHERE quiz_id = ? AND user_id IN (" + simulated + ")",
+                quizId);
+        return quizId;
+    }
+
+    private static List<Question> loadTestQuestions() {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            if (i % 3 == 0) {
+                questions.add(new ShortAnswerQuestion(0, 0, "Question " + i, "Answer " + i));
+            } else if (i % 3 == 1) {
+                questions.add(new TrueFalseQuestion(0, 0, "Question " + i, "True"));
+            } else {
+                questions.add(new MultipleChoiceQuestion(0, 0, "Question " + i,
+                        Arrays.asList("Alpha", "Beta", "Gamma", "Delta"), "Gamma"));
+            }
         }
+        return questions;
     }
-}
 
-// QuizAttender Class
-class QuizAttender extends JFrame {
-    private JComboBox<String> quizSelectBox;
-    private JPanel questionsPanel;
-    private JButton submitButton;
-    private DatabaseManager databaseManager;
-    private List<QuestionAttenderPanel> questionPanels;
-    private User user;
+    // Memory storage has no bulk import: every simulated student shares one hash, so it is computed once
+    private int prepareInMemory(int quizId) throws Exception {
+        if (quizId < 0) {
+            quizId = databaseManager.saveQuiz("Load test quiz", loadTestQuestions());
+        }
+        String hash = databaseManager.hashPassword(PASSWORD);
+        UserRepository users = databaseManager.users();
+        for (int i = 0; i < students; i++) {
+            if (!users.createUser("Load Student " + i, USERNAME_PREFIX + i, hash, "student")) {
+                databaseManager.quizzes().deleteSubmission(quizId, users.findByUsername(USERNAME_PREFIX + i).userId);
+            }
+        }
+        return quizId;
+    }
 
-    public QuizAttender(DatabaseManager databaseManager, User user) {
-        super("Attend Quiz");
-        this.databaseManager = databaseManager;
-        this.user = user;
+    // Drive every student to completion and return the wall-clock duration in nanos
+    long run(int quizId) throws InterruptedException {
+        for (long[] stage : latencies) {
+            Arrays.fill(stage, -1);
+        }
+        ExecutorService executor = AsyncDataAccess.newTaskExecutor("student");
+        long start = System.nanoTime();
+        for (int i = 0; i < students; i++) {
+            int student = i;
+            long startAt = start + rampUp.startOffsetMillis(i, students) * 1_000_000;
+            executor.execute(() -> simulate(student, quizId, startAt));
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return System.nanoTime() - start;
+    }
 
-        // Set up main panel
-        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+    private void simulate(int student, int quizId, long startAt) {
+        Random random = new Random(seed + student);
+        int stage = 0;
+        try {
+            sleepUntil(startAt);
 
-        // Quiz Selection Panel
-        JPanel quizSelectPanel = new JPanel(new BorderLayout());
-        quizSelectPanel.add(new JLabel("Select Quiz:"), BorderLayout.WEST);
-        quizSelectBox = new JComboBox<>();
-        quizSelectPanel.add(quizSelectBox, BorderLayout.CENTER);
+            long t = System.nanoTime();
+            String token = databaseManager.loginUser(USERNAME_PREFIX + student, PASSWORD);
+            latencies[stage][student] = System.nanoTime() - t;
 
-        // Questions Panel
-        questionsPanel = new JPanel();
-        questionsPanel.setLayout(new BoxLayout(questionsPanel, BoxLayout.Y_AXIS));
-        JScrollPane scrollPane = new JScrollPane(questionsPanel);
+            stage = 1;
+            t = System.nanoTime();
+            User user = databaseManager.validateSession(token);
+            latencies[stage][student] = System.nanoTime() - t;
+            if (user == null) {
+                throw new IllegalStateException("Session rejected right after login");
+            }
 
-        // Submit Button
-        submitButton = new JButton("Submit Responses");
+            stage = 2;
+            t = System.nanoTime();
+            List<Question> questions = databaseManager.loadQuestions(quizId);
+            latencies[stage][student] = System.nanoTime() - t;
 
-        // Add components to main panel
-        mainPanel.add(quizSelectPanel, BorderLayout.NORTH);
-        mainPanel.add(scrollPane, BorderLayout.CENTER);
-        mainPanel.add(submitButton, BorderLayout.SOUTH);
+            List<String> answers = new ArrayList<>(questions.size());
+            for (Question question : questions) {
+                answers.add(answer(question, random));
+            }
+            Thread.sleep(thinkTime.millis(random));
+
+            stage = 3;
+            t = System.nanoTime();
+            databaseManager.submitAnswers(user.userId, quizId, questions, answers);
+            latencies[stage][student] = System.nanoTime() - t;
+            completed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            errors.computeIfAbsent(STAGES[stage] + ": " + e.getClass().getSimpleName(),
+                    k -> new LongAdder()).increment();
+        }
+    }
 
-        // Add action listeners
-        quizSelectBox.addActionListener(e -> loadQuestions());
-        submitButton.addActionListener(e -> submitResponses());
+    // Roughly two thirds of answers are correct; wrong ones still look like something a student would type
+    private static String answer(Question question, Random random) {
+        boolean correct = random.nextInt(3) != 0;
+        if (question instanceof MultipleChoiceQuestion) {
+            List<String> options = ((MultipleChoiceQuestion) question).getOptions();
+            return correct ? question.getCorrectAnswer() : options.get(random.nextInt(options.size()));
+        } else if (question instanceof TrueFalseQuestion) {
+            return correct ? question.getCorrectAnswer() : "False";
+        }
+        return correct ? " " + question.getCorrectAnswer().toLowerCase() + " " : "no idea";
+    }
 
-        // Initialize question panels list
-        questionPanels = new ArrayList<>();
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        }
+    }
 
-        // Load quizzes and questions
-        loadQuizzes();
-        loadQuestions();
+    void report(long elapsedNanos, PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%d of %d students submitted in %.1f s (%.1f submissions/s)%n", completed.sum(), students,
+                seconds, completed.sum() / seconds);
+        out.printf("%-16s %7s %9s %9s %9s %9s %9s%n", "stage", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms",
+                "max ms");
+        for (int s = 0; s < STAGES.length; s++) {
+            long[] sorted = Arrays.stream(latencies[s]).filter(l -> l >= 0).sorted().toArray();
+            if (sorted.length == 0) {
+                out.printf("%-16s %7d%n", STAGES[s], 0);
+                continue;
+            }
+            out.printf("%-16s %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", STAGES[s], sorted.length,
+                    sorted.length / seconds, LatencyHistogram.percentileMillis(sorted, 0.50),
+                    LatencyHistogram.percentileMillis(sorted, 0.90), LatencyHistogram.percentileMillis(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+        if (errors.isEmpty()) {
+            out.println("errors: none");
+        } else {
+            out.println("errors:");
+            new TreeMap<>(errors).forEach((key, count) -> out.printf("  %-48s %d%n", key, count.sum()));
+        }
+    }
+}
 
-        // Set up frame
-        setContentPane(mainPanel);
-        setSize(700, 500);
-        setLocationRelativeTo(null);
-        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+// DatasetGenerator Class (seeded synthetic users, quizzes, questions, sessions and answers, loaded through COPY)
+class DatasetGenerator {
+    private static final int COPY_BUFFER = 1 << 16;
+    private static final byte SHORT_ANSWER = 0;
+    private static final byte TRUE_FALSE = 1;
+    private static final byte MULTIPLE_CHOICE = 2;
+    private static final String[] CHOICES = { "Option A", "Option B", "Option C", "Option D" };
+    private static final String CHOICES_ARRAY = DatabaseManager.arrayLiteral(CHOICES);
+    private static final String TRUE_FALSE_ARRAY = DatabaseManager.arrayLiteral(new String[] { "True", "False" });
+
+    private final DatabaseManager databaseManager;
+    private final long seed;
+    private final int users;
+    private final double teacherShare;
+    private final int quizzes;
+    private final Distribution questionsPerQuiz;
+    private final double[] typeWeights;
+    private final int responses;
+    private final Distribution accuracy;
+    private final int sessions;
+    private final double expiredSessionShare;
+
+    // Filled while generating questions so answers can be graded without reading anything back
+    private int[] quizFirstQuestion;
+    private int[] quizQuestionCount;
+    private byte[] questionTypes;
+    private byte[] questionAnswers;
+
+    public DatasetGenerator(DatabaseManager databaseManager, long seed, int users, double teacherShare, int quizzes,
+            Distribution questionsPerQuiz, double[] typeWeights, int responses, Distribution accuracy, int sessions,
+            double expiredSessionShare) {
+        this.databaseManager = databaseManager;
+        this.seed = seed;
+        this.users = users;
+        this.teacherShare = teacherShare;
+        this.quizzes = quizzes;
+        this.questionsPerQuiz = questionsPerQuiz;
+        this.typeWeights = typeWeights;
+        this.responses = responses;
+        this.accuracy = accuracy;
+        this.sessions = sessions;
+        this.expiredSessionShare = expiredSessionShare;
     }
 
-    public void display() {
-        setVisible(true);
+    /*
+     * Settings are system properties (defaults give ~2.5 million student_answers):
+     *   quizapp.data.seed              random seed; the same seed and settings produce the same rows (default 42)
+     *   quizapp.data.users             accounts to create (default 100000)
+     *   quizapp.data.teacherShare      fraction of accounts that are teachers (default 0.02)
+     *   quizapp.data.quizzes           quizzes to create (default 5000)
+     *   quizapp.data.questionsPerQuiz  distribution, see Distribution.parse (default uniform:10-40)
+     *   quizapp.data.typeMix           short:true-false:multiple-choice weights (default 30:30:40)
+     *   quizapp.data.responses         quiz submissions; each adds one answer per question (default 100000)
+     *   quizapp.data.accuracy          per-submission chance of a correct answer (default normal:0.7:0.15)
+     *   quizapp.data.sessions          session rows (default 200000)
+     *   quizapp.data.expiredShare      fraction of sessions already expired (default 0.3)
+     * Every generated account has the password "password".
+     */
+    public static void main(String[] args) throws Exception {
+        String[] mix = System.getProperty("quizapp.data.typeMix", "30:30:40").split(":");
+        double[] typeWeights = { Double.parseDouble(mix[0]), Double.parseDouble(mix[1]), Double.parseDouble(mix[2]) };
+
+        try (DatabaseManager databaseManager = new DatabaseManager()) {
+            DatasetGenerator generator = new DatasetGenerator(databaseManager,
+                    Long.getLong("quizapp.data.seed", 42L),
+                    Integer.getInteger("quizapp.data.users", 100_000),
+                    Double.parseDouble(System.getProperty("quizapp.data.teacherShare", "0.02")),
+                    Integer.getInteger("quizapp.data.quizzes", 5_000),
+                    Distribution.parse(System.getProperty("quizapp.data.questionsPerQuiz", "uniform:10-40")),
+                    typeWeights,
+                    Integer.getInteger("quizapp.data.responses", 100_000),
+                    Distribution.parse(System.getProperty("quizapp.data.accuracy", "normal:0.7:0.15")),
+                    Integer.getInteger("quizapp.data.sessions", 200_000),
+                    Double.parseDouble(System.getProperty("quizapp.data.expiredShare", "0.3")));
+            generator.generate();
+        }
     }
 
-    private void loadQuizzes() {
-        try {
-            quizSelectBox.removeAllItems();
-            ResultSet rs = databaseManager.executeQuery("SELECT quiz_id, title FROM quizzes");
-            while (rs.next()) {
-                quizSelectBox.addItem(rs.getInt("quiz_id") + ": " + rs.getString("title"));
+    /*
+     * Everything goes in one transaction that locks the target tables, so ids can be assigned here from the
+     * current maxima (and the sequences moved past them afterwards) and a failed run leaves nothing behind.
+     */
+    public void generate() throws SQLException {
+        long start = System.nanoTime();
+        String passwordHash = databaseManager.hashPassword("password");
+        databaseManager.inTransaction(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(
+                        "LOCK TABLE users, sessions, quizzes, questions, student_answers, responses IN SHARE ROW EXCLUSIVE MODE");
             }
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+            org.postgresql.copy.CopyManager copyApi = connection.unwrap(org.postgresql.PGConnection.class)
+                    .getCopyAPI();
+            int firstUser = maxId(connection, "SELECT COALESCE(MAX(user_id), 0) FROM users") + 1;
+            int firstQuiz = maxId(connection, "SELECT COALESCE(MAX(quiz_id), 0) FROM quizzes") + 1;
+            int firstQuestion = maxId(connection, "SELECT COALESCE(MAX(question_id), 0) FROM questions") + 1;
+
+            timed("users", () -> copyUsers(copyApi, firstUser, passwordHash));
+            timed("quizzes", () -> copyQuizzes(copyApi, firstQuiz));
+            timed("questions", () -> copyQuestions(copyApi, firstQuiz, firstQuestion));
+            timed("student_answers + responses", () -> copyAnswers(copyApi, firstUser, firstQuiz, firstQuestion));
+            timed("sessions", () -> copySessions(copyApi, firstUser));
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval('users_user_id_seq', (SELECT MAX(user_id) FROM users))");
+                statement.execute("SELECT setval('quizzes_quiz_id_seq', (SELECT MAX(quiz_id) FROM quizzes))");
+                statement.execute("SELECT setval('questions_question_id_seq', (SELECT MAX(question_id) FROM questions))");
+            }
+            return null;
+        });
+        try (Connection connection = databaseManager.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE users, sessions, quizzes, questions, student_answers, responses");
         }
+        System.out.printf("dataset (seed %d) loaded in %.1f s%n", seed, (System.nanoTime() - start) / 1e9);
     }
 
-    private void loadQuestions() {
-        questionsPanel.removeAll();
-        questionPanels.clear();
-        String selectedQuiz = (String) quizSelectBox.getSelectedItem();
-        if (selectedQuiz == null)
-            return;
+    private interface Step {
+        long run() throws SQLException;
+    }
 
-        int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
+    private static void timed(String table, Step step) throws SQLException {
+        long start = System.nanoTime();
+        long rows = step.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-28s %,12d rows %8.1f s %,12.0f rows/s%n", table, rows, seconds, rows / seconds);
+    }
 
-        try {
-            // Check if student has already submitted responses
-            ResultSet rsCheck = databaseManager.executeQuery(
-                    "SELECT * FROM responses WHERE user_id = ? AND quiz_id = ?", user.userId, quizId);
-            if (rsCheck.next()) {
-                // Student has already submitted responses
-                questionsPanel.add(new JLabel("You have already attended this quiz."));
-                submitButton.setEnabled(false);
-            } else {
-                submitButton.setEnabled(true);
-                ResultSet rs = databaseManager.executeQuery(
-                        "SELECT question_id, question_text, question_type, options, correct_answer FROM questions WHERE quiz_id = ?",
-                        quizId);
+    private static int maxId(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
 
-                while (rs.next()) {
-                    int questionId = rs.getInt("question_id");
-                    String questionText = rs.getString("question_text");
-                    String questionType = rs.getString("question_type");
-                    String optionsStr = rs.getString("options");
-                    String correctAnswer = rs.getString("correct_answer");
-
-                    Question question;
-                    switch (questionType) {
-                        case "Short Answer":
-                            question = new ShortAnswerQuestion(questionId, quizId, questionText, correctAnswer);
-                            break;
-                        case "True/False":
-                            question = new TrueFalseQuestion(questionId, quizId, questionText, correctAnswer);
+    // Each table gets its own random stream, so changing one setting does not reshuffle the others
+    private Random random(int stream) {
+        return new Random(seed * 31 + stream);
+    }
+
+    private long copyUsers(org.postgresql.copy.CopyManager copyApi, int firstUser, String passwordHash)
+            throws SQLException {
+        Random random = random(1);
+        try (CopyWriter out = new CopyWriter(copyApi,
+                "COPY users (user_id, name, username, password, role) FROM STDIN (FORMAT csv)")) {
+            for (int i = 0; i < users; i++) {
+                boolean teacher = random.nextDouble() < teacherShare;
+                out.field(firstUser + i).field((teacher ? "Teacher " : "Student ") + i)
+                        .field("synth-" + seed + "-" + i).field(passwordHash).field(teacher ? "teacher" : "student")
+                        .endRow();
+            }
+        }
+        return users;
+    }
+
+    private long copyQuizzes(org.postgresql.copy.CopyManager copyApi, int firstQuiz) throws SQLException {
+        try (CopyWriter out = new CopyWriter(copyApi, "COPY quizzes (quiz_id, title) FROM STDIN (FORMAT csv)")) {
+            for (int q = 0; q < quizzes; q++) {
+                out.field(firstQuiz + q).field("Synthetic quiz " + q).endRow();
+            }
+        }
+        return quizzes;
+    }
+
+    private long copyQuestions(org.postgresql.copy.CopyManager copyApi, int firstQuiz, int firstQuestion)
+            throws SQLException {
+        Random random = random(2);
+        quizFirstQuestion = new int[quizzes];
+        quizQuestionCount = new int[quizzes];
+        int total = 0;
+        for (int q = 0; q < quizzes; q++) {
+            quizFirstQuestion[q] = total;
+            quizQuestionCount[q] = Math.max(1, (int) Math.round(questionsPerQuiz.sample(random)));
+            total += quizQuestionCount[q];
+        }
+        questionTypes = new byte[total];
+        questionAnswers = new byte[total];
+        double weightSum = typeWeights[0] + typeWeights[1] + typeWeights[2];
+
+        try (CopyWriter out = new CopyWriter(copyApi,
+                "COPY questions (question_id, quiz_id, question_text, question_type, options, correct_answer) FROM STDIN (FORMAT csv)")) {
+            for (int q = 0; q < quizzes; q++) {
+                for (int k = 0; k < quizQuestionCount[q]; k++) {
+                    int index = quizFirstQuestion[q] + k;
+                    double pick = random.nextDouble() * weightSum;
+                    byte type = pick < typeWeights[0] ? SHORT_ANSWER
+                            : pick < typeWeights[0] + typeWeights[1] ? TRUE_FALSE : MULTIPLE_CHOICE;
+                    questionTypes[index] = type;
+                    out.field(firstQuestion + index).field(firstQuiz + q)
+                            .field("Synthetic question " + (k + 1) + " of quiz " + q);
+                    switch (type) {
+                        case TRUE_FALSE:
+                            questionAnswers[index] = (byte) random.nextInt(2);
+                            out.field("True/False").field(TRUE_FALSE_ARRAY).field(trueFalse(questionAnswers[index]));
                             break;
-                        case "Multiple Choice":
-                            List<String> options = Arrays.asList(optionsStr.split("~"));
-                            question = new MultipleChoiceQuestion(questionId, quizId, questionText, options,
-                                    correctAnswer);
+                        case MULTIPLE_CHOICE:
+                            questionAnswers[index] = (byte) random.nextInt(CHOICES.length);
+                            out.field("Multiple Choice").field(CHOICES_ARRAY)
+                                    .field(CHOICES[questionAnswers[index]]);
                             break;
                         default:
-                            continue;
+                            out.field("Short Answer").field(null).field(shortAnswer(index));
                     }
-
-                    QuestionAttenderPanel qPanel = new QuestionAttenderPanel(question);
-                    questionPanels.add(qPanel);
-                    questionsPanel.add(qPanel);
+                    out.endRow();
                 }
             }
+        }
+        return total;
+    }
 
-            questionsPanel.revalidate();
-            questionsPanel.repaint();
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+    /*
+     * Spread submissions evenly over quizzes. Within a quiz, students are visited with a stride coprime to the
+     * number of students, which never repeats one, so the (user_id, quiz_id) key stays unique.
+     */
+    private long copyAnswers(org.postgresql.copy.CopyManager copyApi, int firstUser, int firstQuiz,
+            int firstQuestion) throws SQLException {
+        Random random = random(3);
+        int attemptsPerQuiz = Math.min(users, (responses + quizzes - 1) / quizzes);
+        int[] responseUsers = new int[responses];
+        int[] responseQuizzes = new int[responses];
+        double[] responseScores = new double[responses];
+        long answers = 0;
+        int r = 0;
+
+        try (CopyWriter out = new CopyWriter(copyApi,
+                "COPY student_answers (user_id, quiz_id, question_id, student_answer, score) FROM STDIN (FORMAT csv)")) {
+            for (int q = 0; q < quizzes && r < responses; q++) {
+                int student = random.nextInt(users);
+                int stride = coprimeStride(users, random);
+                for (int a = 0; a < attemptsPerQuiz && r < responses; a++) {
+                    student = (student + stride) % users;
+                    double chance = Math.max(0.0, Math.min(1.0, accuracy.sample(random)));
+                    double total = 0.0;
+                    for (int k = 0; k < quizQuestionCount[q]; k++) {
+                        int index = quizFirstQuestion[q] + k;
+                        boolean correct = random.nextDouble() < chance;
+                        out.field(firstUser + student).field(firstQuiz + q).field(firstQuestion + index)
+                                .field(answer(index, correct, random)).field(correct ? "1.00" : "0.00").endRow();
+                        total += correct ? 1.0 : 0.0;
+                    }
+                    answers += quizQuestionCount[q];
+                    responseUsers[r] = firstUser + student;
+                    responseQuizzes[r] = firstQuiz + q;
+                    responseScores[r] = total;
+                    r++;
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(copyApi,
+                "COPY responses (user_id, quiz_id, total_score) FROM STDIN (FORMAT csv)")) {
+            for (int i = 0; i < r; i++) {
+                out.field(responseUsers[i]).field(responseQuizzes[i]).field((int) responseScores[i] + ".00").endRow();
+            }
         }
+        return answers + r;
     }
 
-    private void submitResponses() {
-        String selectedQuiz = (String) quizSelectBox.getSelectedItem();
-
-        if (selectedQuiz == null) {
-            JOptionPane.showMessageDialog(this, "Please select a quiz.", "Input Error", JOptionPane.WARNING_MESSAGE);
-            return;
+    private long copySessions(org.postgresql.copy.CopyManager copyApi, int firstUser) throws SQLException {
+        Random random = random(4);
+        long now = System.currentTimeMillis();
+        try (CopyWriter out = new CopyWriter(copyApi,
+                "COPY sessions (user_id, token, expiry_time) FROM STDIN (FORMAT csv)")) {
+            for (int i = 0; i < sessions; i++) {
+                long expiry = random.nextDouble() < expiredSessionShare
+                        ? now - (long) (random.nextDouble() * 30 * 24 * 3600_000L)
+                        : now + (long) (random.nextDouble() * 3600_000L);
+                out.field(firstUser + random.nextInt(users))
+                        .field(new java.util.UUID(random.nextLong(), random.nextLong()).toString())
+                        .field(new Timestamp(expiry).toString()).endRow();
+            }
         }
+        return sessions;
+    }
 
-        int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
-        double totalScore = 0.0;
-
-        try {
-            for (QuestionAttenderPanel qPanel : questionPanels) {
-                String studentAnswer = qPanel.getAnswer();
-                Question question = qPanel.getQuestion();
-
-                double score = question.gradeAnswer(studentAnswer);
-                totalScore += score;
-
-                // Insert into student_answers table
-                databaseManager.executeUpdate(
-                        "INSERT INTO student_answers (user_id, quiz_id, question_id, student_answer, score) VALUES (?, ?, ?, ?, ?)",
-                        user.userId, quizId, question.getQuestionId(), studentAnswer, score);
-            }
+    private static int coprimeStride(int n, Random random) {
+        if (n == 1) {
+            return 1;
+        }
+        int stride = 1 + random.nextInt(n - 1);
+        while (gcd(stride, n) != 1) {
+            stride = stride % (n - 1) + 1;
+        }
+        return stride;
+    }
 
-            // Insert into responses table
-            databaseManager.executeUpdate("INSERT INTO responses (user_id, quiz_id, total_score) VALUES (?, ?, ?)",
-                    user.userId, quizId, totalScore);
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
 
-            JOptionPane.showMessageDialog(this, "Responses submitted successfully. Your score: " + totalScore);
-            dispose();
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+    private String answer(int index, boolean correct, Random random) {
+        switch (questionTypes[index]) {
+            case TRUE_FALSE:
+                return trueFalse(correct ? questionAnswers[index] : 1 - questionAnswers[index]);
+            case MULTIPLE_CHOICE:
+                return CHOICES[correct ? questionAnswers[index]
+                        : (questionAnswers[index] + 1 + random.nextInt(CHOICES.length - 1)) % CHOICES.length];
+            default:
+                return correct ? shortAnswer(index) : "no idea";
         }
     }
 
-}
+    private static String trueFalse(int value) {
+        return value == 0 ? "True" : "False";
+    }
 
-// QuestionAttenderPanel Class
-class QuestionAttenderPanel extends JPanel {
-    private int questionId;
-    private String questionText;
-    private String questionType;
-    private String options;
-    private JComponent answerComponent;
-    private Question question;
+    private static String shortAnswer(int index) {
+        return "Answer " + index;
+    }
 
-    public QuestionAttenderPanel(Question question) {
-        this.question = question;
-        this.questionId = question.getQuestionId();
-        this.questionText = question.getQuestionText();
-        this.questionType = question.getQuestionType();
+    // CSV rows for one COPY, flushed to the server in 64 KB chunks
+    private static class CopyWriter implements AutoCloseable {
+        private final org.postgresql.copy.CopyIn copy;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+        private boolean firstField = true;
+        private boolean finished;
 
-        setLayout(new BorderLayout(5, 5));
-        setBorder(BorderFactory.createTitledBorder("Question"));
+        CopyWriter(org.postgresql.copy.CopyManager copyApi, String sql) throws SQLException {
+            copy = copyApi.copyIn(sql);
+        }
 
-        JLabel questionLabel = new JLabel("<html><b>" + questionText + "</b></html>");
-        add(questionLabel, BorderLayout.NORTH);
+        CopyWriter field(long value) {
+            separate();
+            buffer.append(value);
+            return this;
+        }
 
-        switch (questionType) {
-            case "Short Answer":
-                answerComponent = new JTextField();
-                break;
-            case "True/False":
-                answerComponent = new JComboBox<>(new String[] { "True", "False" });
-                break;
-            case "Multiple Choice":
-                MultipleChoiceQuestion mcQuestion = (MultipleChoiceQuestion) question;
-                List<String> options = mcQuestion.getOptions();
-                answerComponent = new JComboBox<>(options.toArray(new String[0]));
-                break;
-            default:
-                answerComponent = new JTextField();
-                break;
+        CopyWriter field(String value) {
+            separate();
+            QuizImporter.appendCsv(buffer, value);
+            return this;
         }
 
-        add(answerComponent, BorderLayout.CENTER);
-    }
+        private void separate() {
+            if (!firstField) {
+                buffer.append(',');
+            }
+            firstField = false;
+        }
 
-    public String getAnswer() {
-        if (answerComponent instanceof JTextField) {
-            return ((JTextField) answerComponent).getText().trim();
-        } else if (answerComponent instanceof JComboBox) {
-            return (String) ((JComboBox<?>) answerComponent).getSelectedItem();
+        void endRow() throws SQLException {
+            buffer.append('\n');
+            firstField = true;
+            if (buffer.length() >= COPY_BUFFER) {
+                QuizImporter.flush(copy, buffer);
+            }
         }
-        return "";
-    }
 
-    public Question getQuestion() {
-        return question;
+        @Override
+        public void close() throws SQLException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                QuizImporter.flush(copy, buffer);
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        }
     }
 }
 
@@ -1146,8 +7622,11 @@ class QuizResponseViewer extends JFrame {
     private JTable responseTable;
     private JButton refreshButton;
     private JButton deleteResponseButton;
+    private JButton exportButton;
     private DatabaseManager databaseManager;
     private User user;
+    private Future<?> pendingQuizzes;
+    private Future<?> pendingStudents;
 
     public QuizResponseViewer(DatabaseManager databaseManager, User user) {
         super("View Responses");
@@ -1175,10 +7654,12 @@ class QuizResponseViewer extends JFrame {
         // Buttons Panel
         refreshButton = new JButton("Refresh");
         deleteResponseButton = new JButton("Delete Response");
+        exportButton = new JButton("Export...");
 
         JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         bottomPanel.add(refreshButton);
         bottomPanel.add(deleteResponseButton);
+        bottomPanel.add(exportButton);
         mainPanel.add(bottomPanel, BorderLayout.SOUTH);
 
         // Add components to main panel
@@ -1190,11 +7671,10 @@ class QuizResponseViewer extends JFrame {
         studentSelectBox.addActionListener(e -> loadResponses());
         refreshButton.addActionListener(e -> loadResponses());
         deleteResponseButton.addActionListener(e -> deleteResponse());
+        exportButton.addActionListener(e -> exportResponses());
 
-        // Load quizzes and initial data
+        // Load quizzes; selecting a quiz and student loads the rest
         loadQuizzes();
-        loadStudents();
-        loadResponses();
 
         // Set up frame
         setContentPane(mainPanel);
@@ -1208,18 +7688,20 @@ class QuizResponseViewer extends JFrame {
     }
 
     private void loadQuizzes() {
-        try {
-            quizSelectBox.removeAllItems();
-            ResultSet rs = databaseManager.executeQuery("SELECT quiz_id, title FROM quizzes");
-            while (rs.next()) {
-                quizSelectBox.addItem(rs.getInt("quiz_id") + ": " + rs.getString("title"));
-            }
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
-        }
+        AsyncDataAccess.cancel(pendingQuizzes);
+        pendingQuizzes = databaseManager.async().load(
+                () -> databaseManager.quizzes().listQuizzes(),
+                quizzes -> {
+                    quizSelectBox.removeAllItems();
+                    for (Quiz quiz : quizzes) {
+                        quizSelectBox.addItem(quiz.toString());
+                    }
+                }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
     }
 
     private void loadStudents() {
+        // Switching quiz supersedes any student load still in flight
+        AsyncDataAccess.cancel(pendingStudents);
         studentSelectBox.removeAllItems();
         String selectedQuiz = (String) quizSelectBox.getSelectedItem();
         if (selectedQuiz == null)
@@ -1227,16 +7709,13 @@ class QuizResponseViewer extends JFrame {
 
         int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
 
-        try {
-            ResultSet rs = databaseManager.executeQuery(
-                    "SELECT DISTINCT u.user_id, u.name FROM responses r JOIN users u ON r.user_id = u.user_id WHERE r.quiz_id = ?",
-                    quizId);
-            while (rs.next()) {
-                studentSelectBox.addItem(rs.getInt("user_id") + ": " + rs.getString("name"));
-            }
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
-        }
+        pendingStudents = databaseManager.async().load(
+                () -> databaseManager.quizzes().listSubmissions(quizId),
+                submissions -> {
+                    for (Submission submission : submissions) {
+                        studentSelectBox.addItem(submission.userId + ": " + submission.name);
+                    }
+                }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
     }
 
     // In QuizResponseViewer class
@@ -1250,30 +7729,64 @@ class QuizResponseViewer extends JFrame {
         int quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
         int userId = Integer.parseInt(selectedStudent.split(":")[0]);
 
-        try {
-            ResultSet rs = databaseManager.executeQuery(
-                    "SELECT q.question_text, sa.student_answer, sa.score FROM student_answers sa JOIN questions q ON sa.question_id = q.question_id WHERE sa.quiz_id = ? AND sa.user_id = ?",
-                    quizId, userId);
-
-            DefaultTableModel model = new DefaultTableModel();
-            model.addColumn("Question");
-            model.addColumn("Answer");
-            model.addColumn("Score");
-
-            while (rs.next()) {
-                model.addRow(new Object[] {
-                        rs.getString("question_text"),
-                        rs.getString("student_answer"),
-                        rs.getObject("score")
-                });
-            }
+        PagedTableModel model = new PagedTableModel(new String[] { "Question", "Answer", "Score" },
+                databaseManager.quizzes().answerPage(quizId, userId), databaseManager.async());
+        responseTable.setModel(model);
+        responseTable.setRowHeight(30);
+        model.refresh();
+    }
 
-            responseTable.setModel(model);
-            responseTable.setRowHeight(30);
+    // Export the selected quiz or the whole gradebook; the format follows the file extension (.csv or .json)
+    private void exportResponses() {
+        String selectedQuiz = (String) quizSelectBox.getSelectedItem();
+        Integer quizId = null;
+        if (selectedQuiz != null) {
+            Object[] scopes = { "Selected Quiz", "Whole Gradebook" };
+            int scope = JOptionPane.showOptionDialog(this, "What would you like to export?", "Export Responses",
+                    JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, scopes, scopes[0]);
+            if (scope == JOptionPane.CLOSED_OPTION) {
+                return;
+            }
+            if (scope == 0) {
+                quizId = Integer.parseInt(selectedQuiz.split(":")[0]);
+            }
+        }
 
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(quizId != null ? "quiz-" + quizId + "-responses.csv" : "gradebook.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path file = chooser.getSelectedFile().toPath();
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting responses to " + file.getFileName(), "", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        Integer exportQuizId = quizId;
+        // Set on the EDT when Cancel is pressed; the exporter sees it at its next progress report
+        AtomicBoolean cancelled = new AtomicBoolean();
+        exportButton.setEnabled(false);
+        databaseManager.async().load(() -> new ResponseExporter(databaseManager).export(exportQuizId, file,
+                ResponseExporter.formatFor(file), (rows, total) -> {
+                    SwingUtilities.invokeLater(() -> {
+                        if (monitor.isCanceled()) {
+                            cancelled.set(true);
+                            return;
+                        }
+                        monitor.setProgress(total == 0 ? 100 : (int) (100 * rows / total));
+                        monitor.setNote(String.format("%,d answers written", rows));
+                    });
+                    return !cancelled.get();
+                }), rows -> {
+                    monitor.close();
+                    exportButton.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, String.format("Exported %,d answers to %s", rows, file));
+                }, e -> {
+                    monitor.close();
+                    exportButton.setEnabled(true);
+                    if (!(e instanceof CancellationException)) {
+                        DatabaseManager.showErrorDialog(this, "Export Error", e.getMessage());
+                    }
+                });
     }
 
     private void deleteResponse() {
@@ -1295,17 +7808,290 @@ class QuizResponseViewer extends JFrame {
             return;
         }
 
-        try {
-            // Delete from student_answers
-            databaseManager.executeUpdate("DELETE FROM student_answers WHERE quiz_id = ? AND user_id = ?", quizId,
-                    userId);
-            // Delete from responses
-            databaseManager.executeUpdate("DELETE FROM responses WHERE quiz_id = ? AND user_id = ?", quizId, userId);
+        databaseManager.async().load(() -> databaseManager.quizzes().deleteSubmission(quizId, userId), deleted -> {
             JOptionPane.showMessageDialog(this, "Response deleted successfully.");
             loadResponses();
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+        }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
+    }
+}
+
+// PageSource Interface (keyset-paginated rows for PagedTableModel)
+interface PageSource {
+    // Total rows; may be an estimate for very large tables, the model corrects itself at the end
+    long count() throws SQLException;
+
+    // Up to limit rows ordered by key, strictly after afterKey (null = from the start); the key is the last element
+    List<Object[]> fetchAfter(Object afterKey, int limit) throws SQLException;
+
+    // The key offset rows (0-based) after afterKey, or null if there are not that many rows
+    Object keyAt(Object afterKey, long offset) throws SQLException;
+}
+
+// KeysetPageSource Class (PageSource over one SELECT, paged by a unique, indexed key column)
+class KeysetPageSource implements PageSource {
+    private final DatabaseManager databaseManager;
+    private final String columns;
+    private final String from;
+    private final String where;
+    private final String keyColumn;
+    private final Object[] params;
+    private String countQuery;
+    private Object[] countParams;
+
+    public KeysetPageSource(DatabaseManager databaseManager, String columns, String from, String where,
+            String keyColumn, Object... params) {
+        this.databaseManager = databaseManager;
+        this.columns = columns;
+        this.from = from;
+        this.where = where;
+        this.keyColumn = keyColumn;
+        this.params = params;
+        this.countQuery = "SELECT count(*) FROM " + from + (where == null ? "" : " WHERE " + where);
+        this.countParams = params;
+    }
+
+    // Replace the default count(*) with a cheaper query returning one number
+    public KeysetPageSource withCountQuery(String countQuery, Object... countParams) {
+        this.countQuery = countQuery;
+        this.countParams = countParams;
+        return this;
+    }
+
+    @Override
+    public long count() throws SQLException {
+        Long count = databaseManager.queryForObject(countQuery, rs -> rs.getLong(1), countParams);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public List<Object[]> fetchAfter(Object afterKey, int limit) throws SQLException {
+        return databaseManager.query(fetchSql(afterKey), rs -> {
+            int n = rs.getMetaData().getColumnCount();
+            Object[] row = new Object[n];
+            for (int i = 0; i < n; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        }, args(afterKey, limit));
+    }
+
+    @Override
+    public Object keyAt(Object afterKey, long offset) throws SQLException {
+        String sql = "SELECT " + keyColumn + " FROM " + from + filter(afterKey) + " ORDER BY " + keyColumn
+                + " OFFSET ? LIMIT 1";
+        return databaseManager.queryForObject(sql, rs -> rs.getObject(1), args(afterKey, offset));
+    }
+
+    // The statements exactly as run, so SchemaMigrator can check their plans
+    String fetchSql(Object afterKey) {
+        return "SELECT " + columns + ", " + keyColumn + " FROM " + from + filter(afterKey) + " ORDER BY " + keyColumn
+                + " LIMIT ?";
+    }
+
+    Object[] fetchArgs(Object afterKey, int limit) {
+        return args(afterKey, limit);
+    }
+
+    String countSql() {
+        return countQuery;
+    }
+
+    Object[] countArgs() {
+        return countParams;
+    }
+
+    private String filter(Object afterKey) {
+        List<String> conditions = new ArrayList<>();
+        if (where != null) {
+            conditions.add("(" + where + ")");
+        }
+        if (afterKey != null) {
+            conditions.add(keyColumn + " > ?");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private Object[] args(Object afterKey, Object last) {
+        List<Object> args = new ArrayList<>(Arrays.asList(params));
+        if (afterKey != null) {
+            args.add(afterKey);
+        }
+        args.add(last);
+        return args.toArray();
+    }
+}
+
+// PagedTableModel Class (fetches pages on demand and keeps only a bounded window of them)
+class PagedTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] columnNames;
+    private final PageSource source;
+    private final AsyncDataAccess async;
+    private final int pageSize;
+    private final int maxPages;
+
+    // All state below is only touched on the EDT
+    private int rowCount;
+    private int generation;
+    private final LinkedHashMap<Integer, List<Object[]>> pages;
+    // Page index -> key of the last row before that page (null for page 0); at most two per cached page
+    private final TreeMap<Integer, Object> boundaries = new TreeMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+
+    public PagedTableModel(String[] columnNames, PageSource source, AsyncDataAccess async) {
+        this(columnNames, source, async, 200, 20);
+    }
+
+    public PagedTableModel(String[] columnNames, PageSource source, AsyncDataAccess async, int pageSize,
+            int maxPages) {
+        this.columnNames = columnNames;
+        this.source = source;
+        this.async = async;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+                if (size() <= PagedTableModel.this.maxPages) {
+                    return false;
+                }
+                forgetBoundaries(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /*
+     * Boundaries are recorded around every page that is loaded, so they go with it: a boundary is kept only while
+     * the page it starts or the page it ends is cached. Page 0's is always kept; a page further on is found again
+     * from the nearest remaining boundary with one keyAt lookup.
+     */
+    private void forgetBoundaries(int evicted) {
+        for (int page = Math.max(1, evicted); page <= evicted + 1; page++) {
+            if (!isCachedAfterEviction(page, evicted) && !isCachedAfterEviction(page - 1, evicted)) {
+                boundaries.remove(page);
+            }
+        }
+    }
+
+    private boolean isCachedAfterEviction(int page, int evicted) {
+        return page != evicted && pages.containsKey(page);
+    }
+
+    // Drop everything and re-read the row count; pages are then fetched as they are displayed
+    public void refresh() {
+        int gen = ++generation;
+        pages.clear();
+        loading.clear();
+        boundaries.clear();
+        boundaries.put(0, null);
+        async.load(source::count, count -> {
+            if (gen != generation) {
+                return;
+            }
+            rowCount = (int) Math.min(Integer.MAX_VALUE, count);
+            fireTableDataChanged();
+        }, e -> DatabaseManager.showErrorDialog(null, "Database Error", e.getMessage()));
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    // Returns null while the row's page is still being fetched
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / pageSize;
+        List<Object[]> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return null;
+        }
+        int index = row % pageSize;
+        return index < rows.size() ? rows.get(index)[column] : null;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    public int getBoundaryCount() {
+        return boundaries.size();
+    }
+
+    private void request(int page) {
+        if (!loading.add(page)) {
+            return;
         }
+        int gen = generation;
+        Map.Entry<Integer, Object> known = boundaries.floorEntry(page);
+        int knownPage = known.getKey();
+        Object knownKey = known.getValue();
+
+        async.load(() -> {
+            Object startKey = knownKey;
+            if (knownPage != page) {
+                // Jumped past pages we have not seen: find this page's boundary with one index-only lookup
+                startKey = source.keyAt(knownKey, (long) (page - knownPage) * pageSize - 1);
+                if (startKey == null) {
+                    return Map.entry(Optional.empty(), List.<Object[]>of());
+                }
+            }
+            return Map.entry(Optional.ofNullable(startKey), source.fetchAfter(startKey, pageSize));
+        }, result -> {
+            if (gen != generation) {
+                return;
+            }
+            loading.remove(page);
+            List<Object[]> rows = result.getValue();
+            if (page > 0 && result.getKey().isEmpty()) {
+                shrinkTo(page * pageSize);
+                return;
+            }
+            boundaries.put(page, result.getKey().orElse(null));
+            if (!rows.isEmpty()) {
+                Object[] last = rows.get(rows.size() - 1);
+                boundaries.put(page + 1, last[last.length - 1]);
+            }
+            pages.put(page, rows);
+
+            int first = page * pageSize;
+            if (rows.size() < pageSize && first + rows.size() < rowCount) {
+                // The count was an estimate or rows were deleted meanwhile
+                shrinkTo(first + rows.size());
+            } else if (rows.size() == pageSize && first + pageSize >= rowCount) {
+                // A full last page means the count was low; expose one more row so the next page gets probed
+                rowCount = first + pageSize + 1;
+                fireTableDataChanged();
+            } else {
+                fireTableRowsUpdated(first, Math.min(rowCount, first + pageSize) - 1);
+            }
+        }, e -> {
+            loading.remove(page);
+            DatabaseManager.showErrorDialog(null, "Database Error", e.getMessage());
+        });
+    }
+
+    private void shrinkTo(int rows) {
+        rowCount = rows;
+        fireTableDataChanged();
     }
 }
 
@@ -1313,6 +8099,9 @@ class QuizResponseViewer extends JFrame {
 class QuizManager extends JFrame {
     private JTable quizTable;
     private JButton deleteQuizButton;
+    private JButton regradeQuizButton;
+    private JButton editAnswerButton;
+    private JButton importButton;
     private DatabaseManager databaseManager;
     private User user;
 
@@ -1329,43 +8118,43 @@ class QuizManager extends JFrame {
         quizTable = new JTable();
         JScrollPane scrollPane = new JScrollPane(quizTable);
 
-        // Delete Button
+        // Buttons Panel
         deleteQuizButton = new JButton("Delete Selected Quiz");
+        regradeQuizButton = new JButton("Re-grade Selected Quiz");
+        editAnswerButton = new JButton("Edit Correct Answer...");
+        importButton = new JButton("Import...");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        buttonPanel.add(importButton);
+        buttonPanel.add(editAnswerButton);
+        buttonPanel.add(regradeQuizButton);
+        buttonPanel.add(deleteQuizButton);
 
         // Add components to main panel
         mainPanel.add(scrollPane, BorderLayout.CENTER);
-        mainPanel.add(deleteQuizButton, BorderLayout.SOUTH);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
 
         // Add action listeners
         deleteQuizButton.addActionListener(e -> deleteSelectedQuiz());
+        regradeQuizButton.addActionListener(e -> regradeSelectedQuiz());
+        editAnswerButton.addActionListener(e -> editCorrectAnswer());
+        importButton.addActionListener(e -> importQuizzes());
 
         // Load quizzes
         loadQuizzes();
 
         // Set up frame
         setContentPane(mainPanel);
-        setSize(600, 400);
+        setSize(760, 400);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
     }
 
     private void loadQuizzes() {
-        try {
-            DefaultTableModel model = new DefaultTableModel();
-            model.addColumn("Quiz ID");
-            model.addColumn("Title");
-
-            ResultSet rs = databaseManager.executeQuery("SELECT quiz_id, title FROM quizzes");
-            while (rs.next()) {
-                model.addRow(new Object[] { rs.getInt("quiz_id"), rs.getString("title") });
-            }
-
-            quizTable.setModel(model);
-            quizTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-
-        } catch (SQLException e) {
-            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
-        }
+        PagedTableModel model = new PagedTableModel(new String[] { "Quiz ID", "Title" },
+                databaseManager.quizzes().quizPage(), databaseManager.async());
+        quizTable.setModel(model);
+        quizTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        model.refresh();
     }
 
     private void deleteSelectedQuiz() {
@@ -1376,6 +8165,9 @@ class QuizManager extends JFrame {
             return;
         }
 
+        if (quizTable.getValueAt(selectedRow, 0) == null) {
+            return; // Row is still loading
+        }
         int quizId = (int) quizTable.getValueAt(selectedRow, 0);
         String quizTitle = (String) quizTable.getValueAt(selectedRow, 1);
 
@@ -1385,19 +8177,140 @@ class QuizManager extends JFrame {
             return;
         }
 
-        try {
-            // Delete from responses
-            databaseManager.executeUpdate("DELETE FROM responses WHERE quiz_id = ?", quizId);
-            // Delete from questions
-            databaseManager.executeUpdate("DELETE FROM questions WHERE quiz_id = ?", quizId);
-            // Delete from quizzes
-            databaseManager.executeUpdate("DELETE FROM quizzes WHERE quiz_id = ?", quizId);
-
+        databaseManager.async().load(() -> databaseManager.deleteQuiz(quizId), deleted -> {
             JOptionPane.showMessageDialog(this, "Quiz deleted successfully.");
             loadQuizzes();
+        }, e -> DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage()));
+    }
 
-        } catch (SQLException e) {
+    // Bulk import quizzes from a CSV or JSON Lines file
+    private void importQuizzes() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Quiz files (CSV, JSON Lines)", "csv", "jsonl", "ndjson"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+
+        importButton.setEnabled(false);
+        databaseManager.async().load(() -> new QuizImporter(databaseManager).importFile(file), report -> {
+            importButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, report.toString());
+            loadQuizzes();
+        }, e -> {
+            importButton.setEnabled(true);
+            DatabaseManager.showErrorDialog(this, "Import Error", e.getMessage());
+        });
+    }
+
+    // Re-score every stored answer after a correct answer has been fixed
+    private void regradeSelectedQuiz() {
+        int selectedRow = quizTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a quiz to re-grade.", "Input Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        if (quizTable.getValueAt(selectedRow, 0) == null) {
+            return; // Row is still loading
+        }
+        regrade((int) quizTable.getValueAt(selectedRow, 0));
+    }
+
+    private void regrade(int quizId) {
+        regradeQuizButton.setEnabled(false);
+        databaseManager.async().load(() -> new RegradeJob(databaseManager).run(quizId), result -> {
+            regradeQuizButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, result.toString());
+        }, e -> {
+            regradeQuizButton.setEnabled(true);
+            DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+        });
+    }
+
+    // Fix one question's correct answer, then offer to re-grade the submissions already stored for the quiz
+    private void editCorrectAnswer() {
+        int selectedRow = quizTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a quiz to edit.", "Input Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        if (quizTable.getValueAt(selectedRow, 0) == null) {
+            return; // Row is still loading
+        }
+        int quizId = (int) quizTable.getValueAt(selectedRow, 0);
+        editAnswerButton.setEnabled(false);
+        databaseManager.async().load(() -> databaseManager.loadQuestions(quizId), questions -> {
+            editAnswerButton.setEnabled(true);
+            chooseCorrectAnswer(quizId, questions);
+        }, e -> {
+            editAnswerButton.setEnabled(true);
             DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+        });
+    }
+
+    private void chooseCorrectAnswer(int quizId, List<Question> questions) {
+        if (questions.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "This quiz has no questions.", "Input Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
         }
+        String[] labels = new String[questions.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = (i + 1) + ". " + questions.get(i).getQuestionText();
+        }
+        Object label = JOptionPane.showInputDialog(this, "Question:", "Edit Correct Answer",
+                JOptionPane.QUESTION_MESSAGE, null, labels, labels[0]);
+        if (label == null) {
+            return;
+        }
+        Question question = questions.get(Arrays.asList(labels).indexOf(label));
+
+        String[] choices = null;
+        if (question instanceof MultipleChoiceQuestion) {
+            choices = ((MultipleChoiceQuestion) question).getOptions().toArray(new String[0]);
+        } else if (question instanceof TrueFalseQuestion) {
+            choices = new String[] { "True", "False" };
+        }
+        String prompt = "Correct answer for: " + question.getQuestionText();
+        Object chosen = choices != null
+                ? JOptionPane.showInputDialog(this, prompt, "Edit Correct Answer", JOptionPane.QUESTION_MESSAGE,
+                        null, choices, question.getCorrectAnswer())
+                : JOptionPane.showInputDialog(this, prompt, question.getCorrectAnswer());
+        if (chosen == null) {
+            return;
+        }
+        String correctAnswer = chosen.toString().trim();
+        if (correctAnswer.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "The correct answer cannot be empty.", "Input Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (correctAnswer.equals(question.getCorrectAnswer())) {
+            return;
+        }
+
+        editAnswerButton.setEnabled(false);
+        databaseManager.async().load(
+                () -> databaseManager.updateCorrectAnswer(question.getQuestionId(), correctAnswer), updated -> {
+                    editAnswerButton.setEnabled(true);
+                    if (updated == -1) {
+                        JOptionPane.showMessageDialog(this, "The question no longer exists.", "Input Error",
+                                JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                    int confirm = JOptionPane.showConfirmDialog(this,
+                            "Correct answer updated. Re-grade the submissions already made for this quiz now?",
+                            "Re-grade", JOptionPane.YES_NO_OPTION);
+                    if (confirm == JOptionPane.YES_OPTION) {
+                        regrade(quizId);
+                    }
+                }, e -> {
+                    editAnswerButton.setEnabled(true);
+                    DatabaseManager.showErrorDialog(this, "Database Error", e.getMessage());
+                });
     }
 }
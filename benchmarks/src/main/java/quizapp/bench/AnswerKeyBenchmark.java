@@ -0,0 +1,79 @@
+package quizapp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One whole submission graded question by question versus through the quiz's compiled AnswerKey (run with -prof gc)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AnswerKeyBenchmark {
+    private static final List<String> OPTIONS = List.of("Alpha", "Beta", "Gamma", "Delta");
+
+    @Param({ "50" })
+    public int questionCount;
+
+    private List<Object> questions;
+    private String[] answers;
+    private double[] scores;
+    private Object key;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Random random = new Random(42);
+        questions = new ArrayList<>();
+        answers = new String[questionCount];
+        for (int i = 0; i < questionCount; i++) {
+            switch (i % 3) {
+                case 0:
+                    questions.add((Object) QuizApp.CREATE_QUESTION.invokeExact(i, 1, "Short Answer", "Q" + i,
+                            List.<String>of(), "Answer " + i));
+                    answers[i] = random.nextBoolean() ? " answer " + i + " " : "wrong";
+                    break;
+                case 1:
+                    questions.add((Object) QuizApp.CREATE_QUESTION.invokeExact(i, 1, "True/False", "Q" + i,
+                            List.<String>of(), "True"));
+                    answers[i] = random.nextBoolean() ? "True" : "False";
+                    break;
+                default:
+                    questions.add((Object) QuizApp.CREATE_QUESTION.invokeExact(i, 1, "Multiple Choice", "Q" + i,
+                            OPTIONS, "Gamma"));
+                    answers[i] = OPTIONS.get(random.nextInt(OPTIONS.size()));
+            }
+        }
+        scores = new double[questionCount];
+        Object engine = (Object) QuizApp.NEW_GRADING_ENGINE.invokeExact();
+        key = (Object) QuizApp.COMPILE_ANSWER_KEY.invokeExact(engine, 1, (List) questions);
+    }
+
+    @Benchmark
+    public double perQuestion() throws Throwable {
+        double total = 0.0;
+        for (int i = 0; i < answers.length; i++) {
+            total += (double) QuizApp.GRADE_ANSWER.invokeExact(questions.get(i), answers[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double answerKey() throws Throwable {
+        return (double) QuizApp.GRADE_WITH_KEY.invokeExact(key, answers, scores);
+    }
+}
@@ -0,0 +1,94 @@
+package quizapp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * DatabaseManager query paths against the local PostgreSQL that DatabaseManager is configured for. Setup creates
+ * its own quiz and user and tear-down deletes them again (the user's sessions go with it), though a disposable
+ * database is still the safer target. The "uncached" variants drop the in-process caches first so every call
+ * reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dquizapp.passwords.pbkdf2Iterations=1000")
+public class DatabaseBenchmark {
+    @Param({ "20" })
+    public int questionCount;
+
+    private Object databaseManager;
+    private int quizId;
+    private String username;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        databaseManager = (Object) QuizApp.NEW_DATABASE_MANAGER.invokeExact();
+
+        List<Object> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add((Object) QuizApp.CREATE_QUESTION.invokeExact(0, 0, "Multiple Choice", "Question " + i,
+                    List.of("Alpha", "Beta", "Gamma", "Delta"), "Gamma"));
+        }
+        quizId = (int) QuizApp.SAVE_QUIZ.invokeExact(databaseManager, "Benchmark quiz", (List) questions);
+
+        username = "bench-" + System.nanoTime();
+        QuizApp.REGISTER_USER.invokeExact(databaseManager, "Benchmark User", username, "password", "student");
+        token = (String) QuizApp.LOGIN_USER.invokeExact(databaseManager, username, "password");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        try {
+            boolean deleted = (boolean) QuizApp.DELETE_QUIZ.invokeExact(databaseManager, quizId);
+            int users = (int) QuizApp.EXECUTE_UPDATE.invokeExact(databaseManager,
+                    "DELETE FROM users WHERE username = ?", new Object[] { username });
+            if (!deleted || users != 1) {
+                System.err.println("Benchmark quiz " + quizId + " or user " + username + " was already gone");
+            }
+        } finally {
+            QuizApp.CLOSE.invokeExact(databaseManager);
+        }
+    }
+
+    @Benchmark
+    public List<?> loadQuestionsCached() throws Throwable {
+        return (List<?>) QuizApp.LOAD_QUESTIONS.invokeExact(databaseManager, quizId);
+    }
+
+    @Benchmark
+    public List<?> loadQuestionsUncached() throws Throwable {
+        QuizApp.INVALIDATE_QUIZ.invokeExact(databaseManager, quizId);
+        return (List<?>) QuizApp.LOAD_QUESTIONS.invokeExact(databaseManager, quizId);
+    }
+
+    @Benchmark
+    public Object validateSessionCached() throws Throwable {
+        return (Object) QuizApp.VALIDATE_SESSION.invokeExact(databaseManager, token);
+    }
+
+    @Benchmark
+    public Object validateSessionUncached() throws Throwable {
+        Object sessionCache = (Object) QuizApp.GET_SESSION_CACHE.invokeExact(databaseManager);
+        QuizApp.INVALIDATE_SESSION.invokeExact(sessionCache, token);
+        return (Object) QuizApp.VALIDATE_SESSION.invokeExact(databaseManager, token);
+    }
+}
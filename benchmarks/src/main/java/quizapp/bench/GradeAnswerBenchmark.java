@@ -0,0 +1,58 @@
+package quizapp.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Question.gradeAnswer per question type, over a fixed mix of exact, padded, mixed-case and wrong answers
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GradeAnswerBenchmark {
+    @Param({ "Short Answer", "True/False", "Multiple Choice" })
+    public String questionType;
+
+    private Object question;
+    private String[] answers;
+    private int next;
+
+    @Setup
+    public void setUp() throws Throwable {
+        String correct;
+        switch (questionType) {
+            case "True/False":
+                correct = "True";
+                answers = new String[] { "True", " true ", "False", "TRUE" };
+                break;
+            case "Multiple Choice":
+                correct = "Gamma";
+                answers = new String[] { "Gamma", "Alpha", " gamma", "Delta" };
+                break;
+            default:
+                correct = "Photosynthesis";
+                answers = new String[] { "Photosynthesis", "  photosynthesis ", "respiration", "PHOTOSYNTHESIS" };
+        }
+        question = (Object) QuizApp.CREATE_QUESTION.invokeExact(1, 1, questionType, "Question text",
+                List.of("Alpha", "Beta", "Gamma", "Delta"), correct);
+    }
+
+    @Benchmark
+    public double gradeAnswer() throws Throwable {
+        String answer = answers[next++ & 3];
+        return (double) QuizApp.GRADE_ANSWER.invokeExact(question, answer);
+    }
+}
@@ -0,0 +1,53 @@
+package quizapp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Encoding and decoding of the stored options text[], the per-row work of loadQuestions besides the JDBC read
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OptionsParsingBenchmark {
+    @Param({ "2", "4", "10" })
+    public int optionCount;
+
+    private Object question;
+    private String[] stored;
+
+    @Setup
+    public void setUp() throws Throwable {
+        List<String> options = new ArrayList<>();
+        for (int i = 0; i < optionCount; i++) {
+            options.add("Option number " + (i + 1));
+        }
+        question = (Object) QuizApp.CREATE_QUESTION.invokeExact(1, 1, "Multiple Choice", "Question text",
+                options, options.get(0));
+        stored = (String[]) QuizApp.ENCODE_OPTIONS.invokeExact(question);
+    }
+
+    @Benchmark
+    public List<?> decodeOptions() throws Throwable {
+        return (List<?>) QuizApp.DECODE_OPTIONS.invokeExact(stored);
+    }
+
+    @Benchmark
+    public String[] encodeOptions() throws Throwable {
+        return (String[]) QuizApp.ENCODE_OPTIONS.invokeExact(question);
+    }
+}
@@ -0,0 +1,67 @@
+package quizapp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The hashers behind DatabaseManager.hashPassword and verifyPassword, per PBKDF2 work factor and for legacy MD5
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String LEGACY_MD5 = "0123456789abcdef0123456789abcdef";
+
+    @Param({ "100000", "310000" })
+    public int iterations;
+
+    private Object pbkdf2;
+    private Object legacyMd5;
+    private String encoded;
+
+    @Setup
+    public void setUp() throws Throwable {
+        pbkdf2 = (Object) QuizApp.NEW_PBKDF2_HASHER.invokeExact(iterations);
+        legacyMd5 = (Object) QuizApp.NEW_LEGACY_MD5_VERIFIER.invokeExact();
+        encoded = (String) QuizApp.HASH.invokeExact(pbkdf2, PASSWORD);
+    }
+
+    @Benchmark
+    public String hashPassword() throws Throwable {
+        return (String) QuizApp.HASH.invokeExact(pbkdf2, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() throws Throwable {
+        return (boolean) QuizApp.VERIFY.invokeExact(pbkdf2, PASSWORD, encoded);
+    }
+
+    // A login storm: one verifier per hardware thread, reported as a latency distribution (read p0.99 off it)
+    @Benchmark
+    @Threads(Threads.MAX)
+    @BenchmarkMode(Mode.SampleTime)
+    public boolean verifyPasswordUnderLoad() throws Throwable {
+        return (boolean) QuizApp.VERIFY.invokeExact(pbkdf2, PASSWORD, encoded);
+    }
+
+    // Independent of the work factor; reported once per parameter only because it shares the state
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean verifyLegacyMd5() throws Throwable {
+        return (boolean) QuizApp.VERIFY.invokeExact(legacyMd5, PASSWORD, LEGACY_MD5);
+    }
+}
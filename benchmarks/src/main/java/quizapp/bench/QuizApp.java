@@ -0,0 +1,106 @@
+package quizapp.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+// Handles onto the application classes. They live in the unnamed package, which JMH benchmarks cannot import,
+// so each entry point is looked up once; static final handles are constants to the JIT and inline like direct calls.
+final class QuizApp {
+    static final MethodHandle CREATE_QUESTION; // (int, int, String, String, List, String) -> Question
+    static final MethodHandle GRADE_ANSWER; // (Question, String) -> double
+    static final MethodHandle ENCODE_OPTIONS; // (Question) -> String[]
+    static final MethodHandle DECODE_OPTIONS; // (String[]) -> List<String>
+    static final MethodHandle NEW_GRADING_ENGINE; // () -> GradingEngine
+    static final MethodHandle COMPILE_ANSWER_KEY; // (GradingEngine, int, List) -> AnswerKey
+    static final MethodHandle GRADE_WITH_KEY; // (AnswerKey, String[], double[]) -> double
+    static final MethodHandle NEW_PBKDF2_HASHER; // (int) -> Pbkdf2PasswordHasher
+    static final MethodHandle NEW_LEGACY_MD5_VERIFIER; // () -> LegacyMd5PasswordVerifier
+    static final MethodHandle HASH; // (PasswordHasher, String) -> String
+    static final MethodHandle VERIFY; // (PasswordVerifier, String, String) -> boolean
+    static final MethodHandle NEW_DATABASE_MANAGER; // () -> DatabaseManager
+    static final MethodHandle SAVE_QUIZ; // (DatabaseManager, String, List) -> int
+    static final MethodHandle LOAD_QUESTIONS; // (DatabaseManager, int) -> List
+    static final MethodHandle DELETE_QUIZ; // (DatabaseManager, int) -> boolean
+    static final MethodHandle EXECUTE_UPDATE; // (DatabaseManager, String, Object[]) -> int
+    static final MethodHandle INVALIDATE_QUIZ; // (DatabaseManager, int) -> void
+    static final MethodHandle REGISTER_USER; // (DatabaseManager, String, String, String, String) -> void
+    static final MethodHandle LOGIN_USER; // (DatabaseManager, String, String) -> String
+    static final MethodHandle VALIDATE_SESSION; // (DatabaseManager, String) -> User
+    static final MethodHandle GET_SESSION_CACHE; // (DatabaseManager) -> SessionCache
+    static final MethodHandle INVALIDATE_SESSION; // (SessionCache, String) -> void
+    static final MethodHandle CLOSE; // (DatabaseManager) -> void
+
+    static {
+        try {
+            CREATE_QUESTION = method("Question", "create", int.class, int.class, String.class, String.class,
+                    List.class, String.class);
+            GRADE_ANSWER = method("Question", "gradeAnswer", String.class);
+            ENCODE_OPTIONS = method("DatabaseManager", "encodeOptions", type("Question"));
+            DECODE_OPTIONS = method("DatabaseManager", "decodeOptions", String[].class);
+            NEW_GRADING_ENGINE = constructor("GradingEngine");
+            COMPILE_ANSWER_KEY = method("GradingEngine", "compile", int.class, List.class);
+            GRADE_WITH_KEY = method("AnswerKey", "grade", String[].class, double[].class);
+            NEW_PBKDF2_HASHER = constructor("Pbkdf2PasswordHasher", int.class);
+            NEW_LEGACY_MD5_VERIFIER = constructor("LegacyMd5PasswordVerifier");
+            HASH = method("PasswordHasher", "hash", String.class);
+            VERIFY = method("PasswordVerifier", "verify", String.class, String.class);
+            NEW_DATABASE_MANAGER = constructor("DatabaseManager");
+            SAVE_QUIZ = method("DatabaseManager", "saveQuiz", String.class, List.class);
+            LOAD_QUESTIONS = method("DatabaseManager", "loadQuestions", int.class);
+            DELETE_QUIZ = method("DatabaseManager", "deleteQuiz", int.class);
+            EXECUTE_UPDATE = method("DatabaseManager", "executeUpdate", String.class, Object[].class);
+            INVALIDATE_QUIZ = method("DatabaseManager", "invalidateQuiz", int.class);
+            REGISTER_USER = method("DatabaseManager", "registerUser", String.class, String.class, String.class,
+                    String.class);
+            LOGIN_USER = method("DatabaseManager", "loginUser", String.class, String.class);
+            VALIDATE_SESSION = method("DatabaseManager", "validateSession", String.class);
+            GET_SESSION_CACHE = method("DatabaseManager", "getSessionCache");
+            INVALIDATE_SESSION = method("SessionCache", "invalidate", String.class);
+            CLOSE = method("DatabaseManager", "close");
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private QuizApp() {
+    }
+
+    private static Class<?> type(String name) throws ClassNotFoundException {
+        return Class.forName(name, false, QuizApp.class.getClassLoader());
+    }
+
+    // Every application type in the signature is erased to Object so callers can use invokeExact
+    private static MethodHandle method(String owner, String name, Class<?>... parameters)
+            throws ReflectiveOperationException {
+        Method method = type(owner).getDeclaredMethod(name, parameters);
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        return handle.asType(erase(handle.type()));
+    }
+
+    private static MethodHandle constructor(String owner, Class<?>... parameters)
+            throws ReflectiveOperationException {
+        Constructor<?> constructor = type(owner).getDeclaredConstructor(parameters);
+        constructor.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        return handle.asType(erase(handle.type()));
+    }
+
+    private static MethodType erase(MethodType type) {
+        MethodType erased = type;
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isApplicationType(type.parameterType(i))) {
+                erased = erased.changeParameterType(i, Object.class);
+            }
+        }
+        return isApplicationType(type.returnType()) ? erased.changeReturnType(Object.class) : erased;
+    }
+
+    private static boolean isApplicationType(Class<?> type) {
+        return !type.isPrimitive() && type.getPackageName().isEmpty();
+    }
+}
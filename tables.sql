@@ -1,3 +1,6 @@
+-- Baseline schema. The application applies this (as migration 1) and every later change itself at startup,
+-- see SchemaMigrator in Main.java; applied versions are recorded in schema_version.
+
 -- Create users table
 CREATE TABLE users (
     user_id SERIAL PRIMARY KEY,